@@ -0,0 +1,60 @@
+package hackathon.chatbot.Config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동시에 들어온 블로킹 호출 concurrentCalls개를 모두 끝내는 데 걸리는 시간.
+ * generateContent 대신 callLatencyMillis만큼 잠드는 호출로 Vertex AI 응답 대기를 흉내 냅니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BlockingSchedulerBenchmark {
+
+    @Param({BlockingSchedulerConfig.BOUNDED_ELASTIC, BlockingSchedulerConfig.VIRTUAL_THREADS})
+    private String scheduler;
+
+    @Param({"50", "500"})
+    private int concurrentCalls;
+
+    @Param({"20"})
+    private long callLatencyMillis;
+
+    private Scheduler blockingScheduler;
+
+    @Setup
+    public void setUp() {
+        blockingScheduler = BlockingSchedulerConfig.create(scheduler);
+    }
+
+    @TearDown
+    public void tearDown() {
+        blockingScheduler.dispose();
+    }
+
+    @Benchmark
+    public Long concurrentBlockingCalls() {
+        return Flux.range(0, concurrentCalls)
+                .flatMap(i -> Mono.fromCallable(this::blockingCall).subscribeOn(blockingScheduler), concurrentCalls)
+                .count()
+                .block();
+    }
+
+    private long blockingCall() throws InterruptedException {
+        Thread.sleep(callLatencyMillis);
+        return callLatencyMillis;
+    }
+}
@@ -0,0 +1,23 @@
+package hackathon.chatbot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/** 벤치마크용으로 기록해 둔 응답(fixtures/*)을 읽습니다. */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    public static byte[] read(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Fixture not found: " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package hackathon.chatbot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** 키워드 검색 응답(searchPlace)을 장소 목록으로 바꾸는 파싱 비용. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KakaoMapParseBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String body;
+
+    @Setup
+    public void setUp() {
+        body = new String(Fixtures.read("kakao-local-search.json"), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<Map<String, String>> parsePlaces() {
+        return KakaoMapClient.parsePlaces(objectMapper, body);
+    }
+}
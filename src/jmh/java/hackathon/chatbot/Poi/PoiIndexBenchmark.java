@@ -0,0 +1,83 @@
+package hackathon.chatbot.Poi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로컬 장소 색인의 search_places 조회 비용. 지역/상호/분류를 섞어 만든 poiCount개 장소로 색인을 만듭니다.
+ * query가 landmark면 전체 단어를 가진 장소가 없어 기준점 주변 검색까지 갑니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PoiIndexBenchmark {
+
+    private static final String[] AREAS = {"강남", "역삼", "홍대", "신촌", "판교", "잠실", "성수", "여의도", "종로", "건대"};
+    private static final String[] BRANDS = {"홍콩반점", "스타벅스", "김밥천국", "교촌치킨", "이디야", "본죽", "맘스터치", "파리바게뜨"};
+    private static final String[] CATEGORIES = {"음식점 > 중식 > 중식당", "음식점 > 카페 > 커피전문점", "음식점 > 분식",
+            "음식점 > 치킨", "음식점 > 한식 > 죽", "음식점 > 패스트푸드", "음식점 > 간식 > 제과,베이커리"};
+
+    @Param({"100000"})
+    private int poiCount;
+
+    @Param({"name", "landmark", "miss"})
+    private String query;
+
+    private Path dir;
+    private PoiIndex index;
+    private String text;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        List<PoiIndexBuilder.Place> places = new ArrayList<>(poiCount);
+        for (int i = 0; i < AREAS.length; i++) {
+            places.add(new PoiIndexBuilder.Place(new String[]{AREAS[i] + "역", "서울", "교통,수송 > 지하철,전철역", "", ""},
+                    127.0 + i * 0.01, 37.5));
+        }
+        while (places.size() < poiCount) {
+            int area = random.nextInt(AREAS.length);
+            String brand = BRANDS[random.nextInt(BRANDS.length)];
+            places.add(new PoiIndexBuilder.Place(new String[]{
+                    brand + " " + AREAS[area] + places.size() + "호점", "서울 " + AREAS[area] + "동 " + places.size(),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], "02-000-0000", "http://place.map.kakao.com/" + places.size()},
+                    127.0 + area * 0.01 + random.nextGaussian() * 0.01, 37.5 + random.nextGaussian() * 0.01));
+        }
+        dir = Files.createTempDirectory("poi-bench");
+        Path target = dir.resolve("places.poi");
+        PoiIndexBuilder.write(places, target);
+        index = PoiIndex.open(target, 1000);
+        text = switch (query) {
+            case "name" -> "홍콩반점 강남";
+            case "landmark" -> "성수역 커피전문점";
+            default -> "없는가게 이름";
+        };
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(dir.resolve("places.poi"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public List<Map<String, String>> search() {
+        return index.search(text, 5);
+    }
+}
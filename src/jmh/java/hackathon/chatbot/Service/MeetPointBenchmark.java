@@ -0,0 +1,47 @@
+package hackathon.chatbot.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hackathon.chatbot.Dto.LocationRequest;
+import hackathon.chatbot.Dto.MiddlePointResponse;
+import hackathon.chatbot.Fixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** 참가자 수가 많을 때 좌표 평균(중간 지점) 계산 비용. 기록된 출발지를 groupSize만큼 반복해 씁니다. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MeetPointBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int groupSize;
+
+    private final MeetPointService meetPointService = new MeetPointService();
+    private List<LocationRequest> locations;
+
+    @Setup
+    public void setUp() throws IOException {
+        LocationRequest[] recorded = new ObjectMapper()
+                .readValue(Fixtures.read("meetpoint-origins.json"), LocationRequest[].class);
+        locations = new ArrayList<>(groupSize);
+        for (int i = 0; i < groupSize; i++) {
+            locations.add(recorded[i % recorded.length]);
+        }
+    }
+
+    @Benchmark
+    public MiddlePointResponse calculateMiddlePoint() {
+        return meetPointService.calculateMiddlePoint(locations);
+    }
+}
@@ -0,0 +1,58 @@
+package hackathon.chatbot.Service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import hackathon.chatbot.Dto.DirectionsLeg;
+import hackathon.chatbot.Dto.RouteResult;
+import hackathon.chatbot.Fixtures;
+import hackathon.chatbot.Geo.PathFormat;
+import hackathon.chatbot.Geo.PathOptions;
+import hackathon.chatbot.KakaoDirectionsParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 길찾기 응답을 RouteResult로 조립하는 비용(callKakaoRouteApi의 map 단계).
+ * 응답 파싱부터 포함한 경우와, 캐시에 있던 구간을 조립만 하는 경우를 나눠 잽니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RouteAssemblyBenchmark {
+
+    @Param({"points", "polyline", "delta"})
+    private String format;
+
+    @Param({"0", "5"})
+    private double tolerance;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private byte[] body;
+    private DirectionsLeg leg;
+    private PathOptions pathOptions;
+
+    @Setup
+    public void setUp() {
+        body = Fixtures.read("kakao-directions.json");
+        leg = KakaoDirectionsParser.parse(jsonFactory, body);
+        pathOptions = new PathOptions(PathFormat.from(format), tolerance > 0 ? tolerance : null, null);
+    }
+
+    @Benchmark
+    public RouteResult assembleCached() {
+        return RouteService.toRouteResult(leg, 127.134442, 37.611463, pathOptions);
+    }
+
+    @Benchmark
+    public RouteResult parseAndAssemble() {
+        DirectionsLeg parsed = KakaoDirectionsParser.parse(jsonFactory, body);
+        return RouteService.toRouteResult(parsed, 127.134442, 37.611463, pathOptions);
+    }
+}
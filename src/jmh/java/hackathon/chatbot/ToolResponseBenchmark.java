@@ -0,0 +1,36 @@
+package hackathon.chatbot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.vertexai.api.Content;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** 카카오 검색 결과(Map 목록)를 Gemini FunctionResponse용 protobuf Struct로 바꾸는 비용. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ToolResponseBenchmark {
+
+    private List<Map<String, String>> places;
+
+    @Setup
+    public void setUp() {
+        String body = new String(Fixtures.read("kakao-local-search.json"), StandardCharsets.UTF_8);
+        places = KakaoMapClient.parsePlaces(new ObjectMapper(), body);
+    }
+
+    @Benchmark
+    public Content toToolResponseContent() {
+        return GeminiClient.toToolResponseContent("search_places", "강남역 맛집", places);
+    }
+}
@@ -1,9 +1,23 @@
 package com.example.hackathon_ex;
 
+import hackathon.chatbot.Cache.RouteCache;
+import hackathon.chatbot.Config.KakaoHttpConfig;
+import hackathon.chatbot.Config.KakaoResilienceConfig;
+import hackathon.chatbot.Config.MetricsConfig;
+import hackathon.chatbot.Config.RateLimitConfig;
+import hackathon.chatbot.Config.RouteStoreConfig;
+import hackathon.chatbot.Contorller.OverloadExceptionHandler;
+import hackathon.chatbot.KakaoMobilityClient;
+import hackathon.chatbot.Metrics.UpstreamMetrics;
+import hackathon.chatbot.Service.TravelMatrixService;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@Import({KakaoHttpConfig.class, KakaoResilienceConfig.class, RateLimitConfig.class, MetricsConfig.class,
+        UpstreamMetrics.class, RouteCache.class, KakaoMobilityClient.class, TravelMatrixService.class,
+        OverloadExceptionHandler.class, RouteStoreConfig.class})
 public class HackathonExApplication {
 
     public static void main(String[] args) {
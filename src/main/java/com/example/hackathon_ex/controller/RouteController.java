@@ -2,12 +2,15 @@ package com.example.hackathon_ex.controller;
 
 import com.example.hackathon_ex.dto.*;
 import com.example.hackathon_ex.service.RouteService;
+import hackathon.chatbot.Dto.RouteResult;
+import hackathon.chatbot.Metrics.UpstreamMetrics;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -17,17 +20,19 @@ import java.util.List;
 public class RouteController {
 
     private final RouteService routeService;
+    private final UpstreamMetrics upstreamMetrics;
 
     @PostMapping("/route")
-    public ResponseEntity<List<RouteResult>> getRoutes(@RequestBody RouteRequest request){
+    public Mono<ResponseEntity<List<RouteResult>>> getRoutes(@RequestBody RouteRequest request){
         List<LocationRequest> origins = request.getLocations();
-        List<RouteResult> results = routeService.calculateRouteToMiddle(origins);
-        return ResponseEntity.ok(results);
+        return upstreamMetrics.fanOut("map.route", routeService.calculateRouteToMiddle(origins, request.toPathOptions()))
+                .map(ResponseEntity::ok);
     }
 
     @PostMapping("/optimal")
-    public ResponseEntity<OptimalRouteResponse> getOptimalRoute(@RequestBody OptimalRoute request){
-        return ResponseEntity.ok(routeService.calculateOptimalRoute(request));
+    public Mono<ResponseEntity<OptimalRouteResponse>> getOptimalRoute(@RequestBody OptimalRoute request){
+        return upstreamMetrics.fanOut("map.optimal", routeService.calculateOptimalRoute(request))
+                .map(ResponseEntity::ok);
     }
 
 }
@@ -1,10 +0,0 @@
-package com.example.hackathon_ex.dto;
-
-import lombok.Data;
-
-import java.util.List;
-
-@Data
-public class KakaoRouteResponse {
-    private List<Route> routes;
-}
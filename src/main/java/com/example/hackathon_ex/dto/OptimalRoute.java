@@ -1,5 +1,7 @@
 package com.example.hackathon_ex.dto;
 
+import hackathon.chatbot.Geo.PathFormat;
+import hackathon.chatbot.Geo.PathOptions;
 import lombok.Getter;
 
 import java.util.List;
@@ -7,4 +9,11 @@ import java.util.List;
 @Getter
 public class OptimalRoute {
     private List<LocationRequest> waypoints;
+    private Boolean fixEnd; // 마지막 waypoint를 도착지로 고정할지 여부 (기본 true), 출발지는 항상 첫 waypoint
+    private Double tolerance; // 경로 단순화 허용 오차(m)
+    private Double zoom; // tolerance 대신 지도 줌 레벨(웹 메르카토르)로 지정할 때
+
+    public PathOptions toPathOptions() {
+        return new PathOptions(PathFormat.POINTS, tolerance, zoom);
+    }
 }
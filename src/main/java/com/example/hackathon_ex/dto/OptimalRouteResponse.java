@@ -1,5 +1,6 @@
 package com.example.hackathon_ex.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
@@ -7,8 +8,12 @@ import java.util.List;
 
 @Getter
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class OptimalRouteResponse {
     private int totalDuration;
     private int totalDistance;
     private List<Point>path;
+    private Integer originalPointCount; // 경로 단순화를 요청했을 때만 채워집니다
+    private Integer pointCount;
+    private List<Integer> order; // 실제 방문 순서 (요청한 waypoints의 인덱스)
 }
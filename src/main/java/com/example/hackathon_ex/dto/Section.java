@@ -1,9 +0,0 @@
-package com.example.hackathon_ex.dto;
-
-import lombok.Getter;
-import java.util.List;
-
-@Getter
-public class Section {
-    private List<Road>roads;
-}
@@ -1,9 +0,0 @@
-package com.example.hackathon_ex.dto;
-
-import lombok.Getter;
-
-@Getter
-public class Summary {
-    private int duration;
-    private int distance;
-}
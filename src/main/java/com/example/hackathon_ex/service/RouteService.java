@@ -1,12 +1,23 @@
 package com.example.hackathon_ex.service;
 
 import com.example.hackathon_ex.dto.*;
+import hackathon.chatbot.Dto.DirectionsLeg;
+import hackathon.chatbot.Dto.RouteResult;
+import hackathon.chatbot.Geo.PathOptions;
+import hackathon.chatbot.Geo.RouteGeometry;
+import hackathon.chatbot.KakaoMobilityClient;
+import hackathon.chatbot.Service.TravelMatrixService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @Service
@@ -14,93 +25,100 @@ import java.util.List;
 public class RouteService {
 
     private final MeetPointService meetPointService;
+    private final KakaoMobilityClient kakaoMobilityClient;
+    private final TravelMatrixService travelMatrixService;
 
-    @Value("${kakao.api.key}")
-    private String kakaoApiKey;
+    // 한 요청에서 동시에 보낼 수 있는 길찾기 호출 수 상한
+    @Value("${kakao.route.max-concurrency:8}")
+    private int maxConcurrency;
 
-    private WebClient getWebClient() {
-        return WebClient.builder()
-                .baseUrl("https://apis-navi.kakaomobility.com")
-                .defaultHeader("Authorization", "KakaoAK " + kakaoApiKey)
-                .build();
-    }
+    @Value("${route.optimal.max-waypoints:20}")
+    private int maxWaypoints;
+
+    // 경유지가 많아 휴리스틱을 쓸 때 순서 개선에 쓸 수 있는 시간
+    @Value("${route.optimal.solver-time-budget:200ms}")
+    private Duration solverTimeBudget;
 
-    public List<RouteResult> calculateRouteToMiddle(List<LocationRequest> origins) {
+    public Mono<List<RouteResult>> calculateRouteToMiddle(List<LocationRequest> origins, PathOptions pathOptions) {
         MiddlePointResponse middle = meetPointService.calculateMiddlePoint(origins);
         double midX = middle.getX();
         double midY = middle.getY();
 
-        List<RouteResult> results = new ArrayList<>();
-        for (LocationRequest origin : origins) {
-            results.add(callKakaoRouteApi(origin.getX(), origin.getY(), midX, midY));
-        }
-        return results;
+        // 참가자별 길찾기를 한 번에 보내고, 결과는 입력 순서대로 모읍니다.
+        return Flux.fromIterable(origins)
+                .flatMapSequential(origin -> callKakaoRouteApi(origin.getX(), origin.getY(), midX, midY, pathOptions), maxConcurrency)
+                .collectList();
     }
 
-    private RouteResult callKakaoRouteApi(double startX, double startY, double endX, double endY) {
-        KakaoRouteResponse response = getWebClient().get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/v1/directions")
-                        .queryParam("origin", startX + "," + startY)
-                        .queryParam("destination", endX + "," + endY)
-                        .queryParam("priority", "DISTANCE")
-                        .build())
-                .retrieve()
-                .bodyToMono(KakaoRouteResponse.class)
-                .block();
-
-        int duration = response.getRoutes().get(0).getSummary().getDuration();
-        int distance = response.getRoutes().get(0).getSummary().getDistance();
-        List<Double>vertexes = response.getRoutes()
-                .get(0).getSections()
-                .get(0).getRoads()
-                .stream()
-                .flatMap(road->road.getVertexes().stream())
-                .toList();
-        List<Point>path = new ArrayList<>();
-        for(int i=0;i<vertexes.size();i+=2){
-            double x = vertexes.get(i);
-            double y = vertexes.get(i+1);
-            path.add(new Point(x, y));
-        }
-        return new RouteResult(endX, endY, duration, distance,path);
+    private Mono<RouteResult> callKakaoRouteApi(double startX, double startY, double endX, double endY, PathOptions pathOptions) {
+        return kakaoMobilityClient.getDirections(startX, startY, endX, endY)
+                .map(leg -> hackathon.chatbot.Service.RouteService.toRouteResult(leg, endX, endY, pathOptions));
     }
-    public OptimalRouteResponse calculateOptimalRoute(OptimalRoute request) {
+
+    /**
+     * 경유지 방문 순서를 이동 시간 기준으로 최적화한 뒤 전체 경로를 만듭니다.
+     * 1) 경유지 간 이동 시간 행렬을 묶음 조회로 가져오고
+     * 2) 순서를 정한 다음
+     * 3) 정해진 순서의 구간 경로를 병렬로 가져옵니다.
+     */
+    public Mono<OptimalRouteResponse> calculateOptimalRoute(OptimalRoute request) {
         List<LocationRequest> waypoints = request.getWaypoints();
         if (waypoints == null || waypoints.size() < 2) {
-            throw new IllegalArgumentException("Waypoints must contain at least two points");
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Waypoints must contain at least two points"));
+        }
+        if (waypoints.size() > maxWaypoints) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Waypoints must contain at most " + maxWaypoints + " points"));
         }
+        PathOptions pathOptions = request.toPathOptions();
+        boolean fixEnd = request.getFixEnd() == null || request.getFixEnd();
+
+        return fetchDurationMatrix(waypoints)
+                .map(matrix -> WaypointOrderSolver.solve(matrix, fixEnd, System.nanoTime() + solverTimeBudget.toNanos()))
+                .flatMap(order -> Flux.range(0, order.length - 1)
+                        .flatMapSequential(i -> {
+                            LocationRequest origin = waypoints.get(order[i]);
+                            LocationRequest destination = waypoints.get(order[i + 1]);
+                            return kakaoMobilityClient.getDirections(origin.getX(), origin.getY(), destination.getX(), destination.getY());
+                        }, maxConcurrency)
+                        .collectList()
+                        .map(legs -> toOptimalRouteResponse(order, legs, pathOptions)));
+    }
+
+    // cost[i][j]: i번 경유지에서 j번 경유지까지 걸리는 시간(초). 길이 없는 구간은 UNREACHABLE입니다.
+    private Mono<int[][]> fetchDurationMatrix(List<LocationRequest> waypoints) {
+        int n = waypoints.size();
+        double[] coordinates = new double[n * 2];
+        for (int i = 0; i < n; i++) {
+            coordinates[i * 2] = waypoints.get(i).getX();
+            coordinates[i * 2 + 1] = waypoints.get(i).getY();
+        }
+        return travelMatrixService.compute(coordinates, coordinates)
+                .map(matrix -> {
+                    int[][] cost = new int[n][n];
+                    for (int i = 0; i < n; i++) {
+                        for (int j = 0; j < n; j++) {
+                            int duration = matrix.duration(i, j);
+                            cost[i][j] = duration < 0 ? WaypointOrderSolver.UNREACHABLE : duration;
+                        }
+                    }
+                    return cost;
+                });
+    }
+
+    private OptimalRouteResponse toOptimalRouteResponse(int[] order, List<DirectionsLeg> legs, PathOptions pathOptions) {
         int totalDistance = 0;
         int totalDuration = 0;
-        List<Point> fullPath = new ArrayList<>();
-        for (int i = 0; i < waypoints.size() - 1; i++) {
-            LocationRequest origin = waypoints.get(i);
-            LocationRequest destination = waypoints.get(i + 1);
-            KakaoRouteResponse response = getWebClient().get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/v1/directions")
-                            .queryParam("origin", origin.getX() + "," + origin.getY())
-                            .queryParam("destination", destination.getX() + "," + destination.getY())
-                            .queryParam("priority", "DISTANCE")
-                            .build())
-                    .retrieve()
-                    .bodyToMono(KakaoRouteResponse.class)
-                    .block();
-            if (response != null) {
-                int duration = response.getRoutes().get(0).getSummary().getDuration();
-                int distance = response.getRoutes().get(0).getSummary().getDistance();
-                totalDistance += distance;
-                totalDuration += duration;
-                List<Double> vertexes = response.getRoutes().get(0).getSections().get(0).getRoads()
-                        .stream().flatMap(road -> road.getVertexes().stream())
-                        .toList();
-                for (int j = 0; j < vertexes.size(); j += 2) {
-                    double x = vertexes.get(j);
-                    double y = vertexes.get(j + 1);
-                    fullPath.add(new Point(x, y));
-                }
-            }
+        List<RouteGeometry> geometries = new ArrayList<>(legs.size());
+        for (DirectionsLeg leg : legs) {
+            totalDistance += leg.getDistance();
+            totalDuration += leg.getDuration();
+            geometries.add(leg.getGeometry());
         }
-        return new OptimalRouteResponse(totalDuration, totalDistance, fullPath);
+        RouteGeometry fullPath = RouteGeometry.concat(geometries);
+        RouteGeometry path = pathOptions.simplify(fullPath);
+        List<Integer> visitOrder = Arrays.stream(order).boxed().toList();
+        return pathOptions.simplifies()
+                ? new OptimalRouteResponse(totalDuration, totalDistance, path.toPoints(Point::new), fullPath.pointCount(), path.pointCount(), visitOrder)
+                : new OptimalRouteResponse(totalDuration, totalDistance, path.toPoints(Point::new), null, null, visitOrder);
     }
 }
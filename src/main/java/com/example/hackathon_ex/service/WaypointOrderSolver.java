@@ -0,0 +1,197 @@
+package com.example.hackathon_ex.service;
+
+import java.util.Arrays;
+
+/**
+ * 경유지 방문 순서를 정하는 솔버.
+ * 0번(출발지)은 항상 처음에 두고, fixEnd이면 마지막 경유지를 도착지로 고정합니다.
+ * 경유지가 적으면 Held-Karp 동적 계획법으로 최적해를 구하고,
+ * 많으면 최근접 이웃으로 시작해 시간 예산 안에서 2-opt와 Or-opt로 개선합니다.
+ * 이동 시간 행렬은 비대칭(A→B와 B→A가 다름)이어도 됩니다.
+ */
+final class WaypointOrderSolver {
+
+    /** 길이 없는 구간의 비용. 여러 개를 더해도 넘치지 않도록 충분히 작게 잡습니다. */
+    static final int UNREACHABLE = Integer.MAX_VALUE / 64;
+
+    static final int EXACT_LIMIT = 13;
+
+    private WaypointOrderSolver() {
+    }
+
+    static int[] solve(int[][] cost, boolean fixEnd, long deadlineNanos) {
+        int n = cost.length;
+        if (n <= 3) {
+            return identity(n, fixEnd, cost);
+        }
+        return n <= EXACT_LIMIT ? heldKarp(cost, fixEnd) : improve(nearestNeighbour(cost, fixEnd), cost, fixEnd, deadlineNanos);
+    }
+
+    static long pathCost(int[] order, int[][] cost) {
+        long total = 0;
+        for (int i = 0; i + 1 < order.length; i++) {
+            total += cost[order[i]][order[i + 1]];
+        }
+        return total;
+    }
+
+    private static int[] identity(int n, boolean fixEnd, int[][] cost) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        // 경유지가 하나뿐이고 도착지도 자유로우면 두 순서 중 짧은 쪽을 고릅니다.
+        if (n == 3 && !fixEnd && cost[0][2] + cost[2][1] < cost[0][1] + cost[1][2]) {
+            order[1] = 2;
+            order[2] = 1;
+        }
+        return order;
+    }
+
+    // dp[mask][j]: 0에서 출발해 mask(1..n-1 중 방문한 점들)를 모두 지나 j에서 끝나는 최소 비용
+    private static int[] heldKarp(int[][] cost, boolean fixEnd) {
+        int n = cost.length;
+        int m = n - 1;
+        int full = (1 << m) - 1;
+        long[][] dp = new long[1 << m][m];
+        int[][] parent = new int[1 << m][m];
+        for (long[] row : dp) {
+            Arrays.fill(row, Long.MAX_VALUE);
+        }
+        for (int j = 0; j < m; j++) {
+            dp[1 << j][j] = cost[0][j + 1];
+            parent[1 << j][j] = -1;
+        }
+        int last = m - 1; // 고정된 도착지(n-1번)의 dp 인덱스
+        for (int mask = 1; mask <= full; mask++) {
+            for (int j = 0; j < m; j++) {
+                long current = dp[mask][j];
+                if (current == Long.MAX_VALUE || (mask & (1 << j)) == 0) {
+                    continue;
+                }
+                // 도착지를 고정했다면 다른 점을 모두 방문하기 전에는 도착지에서 나갈 수 없습니다.
+                if (fixEnd && j == last && mask != full) {
+                    continue;
+                }
+                for (int k = 0; k < m; k++) {
+                    if ((mask & (1 << k)) != 0) {
+                        continue;
+                    }
+                    int next = mask | (1 << k);
+                    long candidate = current + cost[j + 1][k + 1];
+                    if (candidate < dp[next][k]) {
+                        dp[next][k] = candidate;
+                        parent[next][k] = j;
+                    }
+                }
+            }
+        }
+        int end = last;
+        if (!fixEnd) {
+            for (int j = 0; j < m; j++) {
+                if (dp[full][j] < dp[full][end]) {
+                    end = j;
+                }
+            }
+        }
+        int[] order = new int[n];
+        int mask = full;
+        for (int position = n - 1, j = end; position >= 1; position--) {
+            order[position] = j + 1;
+            int previous = parent[mask][j];
+            mask &= ~(1 << j);
+            j = previous;
+        }
+        order[0] = 0;
+        return order;
+    }
+
+    private static int[] nearestNeighbour(int[][] cost, boolean fixEnd) {
+        int n = cost.length;
+        boolean[] visited = new boolean[n];
+        int[] order = new int[n];
+        visited[0] = true;
+        int limit = fixEnd ? n - 1 : n;
+        if (fixEnd) {
+            visited[n - 1] = true;
+            order[n - 1] = n - 1;
+        }
+        for (int position = 1; position < limit; position++) {
+            int from = order[position - 1];
+            int best = -1;
+            for (int candidate = 1; candidate < n; candidate++) {
+                if (!visited[candidate] && (best < 0 || cost[from][candidate] < cost[from][best])) {
+                    best = candidate;
+                }
+            }
+            order[position] = best;
+            visited[best] = true;
+        }
+        return order;
+    }
+
+    /** 더 나아지지 않거나 시간 예산이 끝날 때까지 2-opt, Or-opt 이동을 반복합니다. */
+    private static int[] improve(int[] order, int[][] cost, boolean fixEnd, long deadlineNanos) {
+        int lastMovable = fixEnd ? order.length - 2 : order.length - 1;
+        long best = pathCost(order, cost);
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadlineNanos) {
+            improved = false;
+            // 2-opt: [i..k] 구간 뒤집기
+            for (int i = 1; i < lastMovable && System.nanoTime() < deadlineNanos; i++) {
+                for (int k = i + 1; k <= lastMovable; k++) {
+                    reverse(order, i, k);
+                    long candidate = pathCost(order, cost);
+                    if (candidate < best) {
+                        best = candidate;
+                        improved = true;
+                    } else {
+                        reverse(order, i, k);
+                    }
+                }
+            }
+            // Or-opt: 길이 1~3 구간을 다른 위치로 옮기기
+            for (int length = 1; length <= 3 && System.nanoTime() < deadlineNanos; length++) {
+                for (int i = 1; i + length - 1 <= lastMovable; i++) {
+                    for (int target = 1; target + length - 1 <= lastMovable; target++) {
+                        if (target == i) {
+                            continue;
+                        }
+                        int[] moved = moveSegment(order, i, length, target);
+                        long candidate = pathCost(moved, cost);
+                        if (candidate < best) {
+                            best = candidate;
+                            System.arraycopy(moved, 0, order, 0, order.length);
+                            improved = true;
+                        }
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    private static void reverse(int[] order, int from, int to) {
+        while (from < to) {
+            int tmp = order[from];
+            order[from++] = order[to];
+            order[to--] = tmp;
+        }
+    }
+
+    // order[i..i+length-1] 구간을 떼어 내 나머지 배열의 target 위치에 끼워 넣은 새 배열
+    private static int[] moveSegment(int[] order, int i, int length, int target) {
+        int[] rest = new int[order.length - length];
+        int r = 0;
+        for (int p = 0; p < order.length; p++) {
+            if (p < i || p >= i + length) {
+                rest[r++] = order[p];
+            }
+        }
+        int[] moved = new int[order.length];
+        System.arraycopy(rest, 0, moved, 0, target);
+        System.arraycopy(order, i, moved, target, length);
+        System.arraycopy(rest, target, moved, target + length, rest.length - target);
+        return moved;
+    }
+}
@@ -0,0 +1,129 @@
+package hackathon.chatbot.Cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 카카오 키워드 검색 결과 캐시.
+ * 검색어를 정규화한 값을 키로 TTL 동안 결과를 보관하고,
+ * 같은 검색어가 동시에 들어오면 진행 중인 하나의 요청(Mono)을 함께 구독하도록 합니다(single-flight).
+ */
+@Component
+public class PlaceSearchCache {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(128, 0.75f, true);
+    private final Map<String, Mono<List<Map<String, String>>>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public PlaceSearchCache(@Value("${kakao.search.cache.ttl:30m}") Duration ttl,
+                            @Value("${kakao.search.cache.max-entries:5000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /** 공백을 하나로 줄이고 대소문자/유니코드 조합형 차이를 없앤 캐시 키. */
+    public static String normalize(String query) {
+        String normalized = Normalizer.normalize(query == null ? "" : query, Normalizer.Form.NFC);
+        return normalized.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 캐시에 있으면 바로 돌려주고, 없으면 loader로 한 번만 검색합니다.
+     * 실패한 검색은 캐시에 남기지 않으므로 다음 요청에서 다시 시도됩니다.
+     */
+    public Mono<List<Map<String, String>>> get(String query, Function<String, Mono<List<Map<String, String>>>> loader) {
+        String key = normalize(query);
+        return Mono.defer(() -> {
+            List<Map<String, String>> cached = lookup(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return Mono.just(cached);
+            }
+            misses.incrementAndGet();
+            boolean[] created = new boolean[1];
+            Mono<List<Map<String, String>>> shared = inFlight.computeIfAbsent(key, k -> {
+                created[0] = true;
+                return loader.apply(query)
+                        .map(PlaceSearchCache::freeze)
+                        .doOnNext(places -> store(k, places))
+                        .doFinally(signal -> inFlight.remove(k))
+                        .cache();
+            });
+            if (!created[0]) {
+                coalesced.incrementAndGet();
+            }
+            return shared;
+        });
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(hits.get(), misses.get(), coalesced.get(), entries.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Map<String, String>> lookup(String key) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.storedAt > ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.places;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(String key, List<Map<String, String>> places) {
+        lock.lock();
+        try {
+            entries.put(key, new Entry(places, System.nanoTime()));
+            Iterator<String> it = entries.keySet().iterator();
+            while (entries.size() > maxEntries && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 여러 요청이 같은 결과 객체를 공유하므로 수정할 수 없는 복사본으로 보관합니다.
+    private static List<Map<String, String>> freeze(List<Map<String, String>> places) {
+        return places.stream().map(Map::copyOf).toList();
+    }
+
+    public record Stats(long hits, long misses, long coalesced, int size) {
+    }
+
+    private record Entry(List<Map<String, String>> places, long storedAt) {
+    }
+}
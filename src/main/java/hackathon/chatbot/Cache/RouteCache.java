@@ -0,0 +1,147 @@
+package hackathon.chatbot.Cache;
+
+import hackathon.chatbot.Dto.DirectionsLeg;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 출발지/도착지를 격자에 맞춰 스냅한 키로 길찾기 결과를 보관하는 프로세스 내 캐시.
+ * 같은 역 주변에서 모이는 요청들이 카카오 길찾기 API를 다시 부르지 않도록 합니다.
+ *
+ * <p>항목 수와 저장된 좌표 수로 메모리를 제한하고, TTL이 지난 항목은 조회 시 버립니다.
+ * 한도를 넘으면 가장 오래 조회되지 않은 항목부터 내보냅니다(LRU).
+ */
+@Component
+public class RouteCache {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    private final double gridMeters;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final long maxVertexes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long storedVertexes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public RouteCache(@Value("${kakao.route.cache.grid-meters:50}") double gridMeters,
+                      @Value("${kakao.route.cache.ttl:10m}") Duration ttl,
+                      @Value("${kakao.route.cache.max-entries:10000}") int maxEntries,
+                      @Value("${kakao.route.cache.max-vertexes:5000000}") long maxVertexes) {
+        if (gridMeters <= 0) {
+            throw new IllegalArgumentException("kakao.route.cache.grid-meters는 0보다 커야 합니다");
+        }
+        this.gridMeters = gridMeters;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.maxVertexes = maxVertexes;
+    }
+
+    /** 출발지/도착지 좌표(x=경도, y=위도)를 격자 셀 번호로 바꾼 캐시 키를 만듭니다. */
+    public Key keyOf(double startX, double startY, double endX, double endY) {
+        long startRow = row(startY);
+        long endRow = row(endY);
+        return new Key(startRow, column(startX, startRow), endRow, column(endX, endRow));
+    }
+
+    public DirectionsLeg get(Key key) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (System.nanoTime() - entry.storedAt > ttlNanos) {
+                remove(key, entry);
+                expirations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.leg;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(Key key, DirectionsLeg leg) {
+        int weight = weightOf(leg);
+        if (weight > maxVertexes) {
+            return;
+        }
+        lock.lock();
+        try {
+            Entry previous = entries.put(key, new Entry(leg, System.nanoTime()));
+            if (previous != null) {
+                storedVertexes -= weightOf(previous.leg);
+            }
+            storedVertexes += weight;
+            evictIfNeeded();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(hits.get(), misses.get(), evictions.get(), expirations.get(), entries.size(), storedVertexes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || storedVertexes > maxVertexes) && it.hasNext()) {
+            Map.Entry<Key, Entry> eldest = it.next();
+            storedVertexes -= weightOf(eldest.getValue().leg);
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(Key key, Entry entry) {
+        entries.remove(key);
+        storedVertexes -= weightOf(entry.leg);
+    }
+
+    // 저장된 좌표 값(double) 개수로 항목의 메모리 무게를 잽니다.
+    private static int weightOf(DirectionsLeg leg) {
+        return leg.getGeometry().pointCount() * 2;
+    }
+
+    private long row(double y) {
+        return Math.round(y * METERS_PER_DEGREE / gridMeters);
+    }
+
+    // 경도 1도의 길이는 위도에 따라 줄어들기 때문에 스냅된 행의 위도를 기준으로 셀 폭을 잡습니다.
+    private long column(double x, long row) {
+        double latitude = row * gridMeters / METERS_PER_DEGREE;
+        double metersPerDegree = METERS_PER_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        return Math.round(x * metersPerDegree / gridMeters);
+    }
+
+    public record Key(long startRow, long startColumn, long endRow, long endColumn) {
+    }
+
+    public record Stats(long hits, long misses, long evictions, long expirations, int size, long vertexes) {
+    }
+
+    private record Entry(DirectionsLeg leg, long storedAt) {
+    }
+}
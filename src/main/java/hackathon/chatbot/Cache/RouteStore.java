@@ -0,0 +1,478 @@
+package hackathon.chatbot.Cache;
+
+import hackathon.chatbot.Dto.DirectionsLeg;
+import hackathon.chatbot.Geo.RouteGeometry;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * 재시작해도 남는 길찾기 결과 저장소. {@link RouteCache}(힙) 뒤에 두는 2단계 캐시로,
+ * 배포 직후에도 자주 쓰이던 구간을 카카오 호출 없이 돌려줍니다.
+ *
+ * <p>파일 하나를 maxBytes만큼 메모리 매핑해 레코드를 뒤에 이어 쓰기만 합니다(append-only).
+ * 같은 키를 다시 쓰면 앞의 레코드는 버려진 공간이 되고, 버려진 공간이 절반을 넘거나 파일이 가득 차면
+ * 살아 있는 레코드만 새 파일로 옮겨 쓰는 압축을 백그라운드에서 합니다. 압축은 TTL이 지난 레코드를 버리고,
+ * 그래도 크면 최근에 쓴 레코드부터 파일의 4분의 3까지만 남깁니다.
+ * 키 -> 레코드 위치 색인은 힙 밖(direct buffer)의 선형 탐사 해시 표이고, 시작할 때 파일을 훑어 다시 만듭니다.
+ *
+ * <p>파일 구조(리틀 엔디언): 헤더(magic, version) | 레코드...
+ * 레코드: 길이(int) | CRC32(int) | 키(long x 4) | 저장 시각(epoch ms) | duration | distance | 점 개수 | 좌표(double x, y ...)
+ * 길이는 CRC까지 쓴 뒤 마지막에 씁니다. 시작할 때 길이나 CRC가 맞지 않는 레코드를 만나면 거기까지만 읽고 그 위치부터 다시 씁니다.
+ *
+ * <p>조회와 저장은 이벤트 루프에서도 불리므로 호출한 스레드를 기다리게 하지 않습니다.
+ * 저장은 키별 최신 결과를 pending에 넣기만 하고 boundedElastic에서 한 번에 하나씩 파일에 씁니다(write-behind).
+ * 조회는 pending을 먼저 보고, 파일은 읽기 잠금을 바로 얻을 수 있을 때만 읽습니다.
+ * 쓰기나 압축이 잠금을 쥐고 있으면 기다리지 않고 miss로 처리합니다.
+ */
+public final class RouteStore implements Closeable {
+
+    static final int MAGIC = 0x52545331; // "RTS1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_HEADER_BYTES = 60;
+    private static final int SLOT_BYTES = 16;
+    private static final int MIN_SLOTS = 1024;
+    private static final int MAX_PENDING = 4096;
+
+    private final Path path;
+    private final long ttlMillis;
+    private final int capacity;
+
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    // 아직 파일에 쓰지 않은 키별 최신 결과
+    private final Map<RouteCache.Key, DirectionsLeg> pending = new ConcurrentHashMap<>();
+    private volatile boolean compacting;
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    // 슬롯마다 [키 해시, 레코드 위치 + 1]. 위치 칸이 0이면 빈 슬롯입니다.
+    private ByteBuffer index;
+    private int slotMask;
+    private int position;
+    private int liveRecords;
+    private long deadBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+
+    private RouteStore(Path path, Duration ttl, int capacity) {
+        this.path = path;
+        this.ttlMillis = ttl.toMillis();
+        this.capacity = capacity;
+    }
+
+    /** 파일이 있으면 레코드를 훑어 색인을 다시 만들고, 없거나 형식이 다르면 새로 만듭니다. */
+    public static RouteStore open(Path path, Duration ttl, int maxBytes) throws IOException {
+        if (maxBytes < HEADER_BYTES + RECORD_HEADER_BYTES) {
+            throw new IllegalArgumentException("kakao.route.store.max-bytes가 너무 작습니다: " + maxBytes);
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        RouteStore store = new RouteStore(path, ttl, maxBytes);
+        store.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (store.channel.size() >= HEADER_BYTES && !store.hasHeader()) {
+            store.channel.truncate(0);
+        }
+        store.segment = map(store.channel, maxBytes);
+        if (store.segment.getInt(0) != MAGIC) {
+            writeHeader(store.segment);
+        }
+        store.index = newIndex(MIN_SLOTS);
+        store.slotMask = MIN_SLOTS - 1;
+        store.recover();
+        return store;
+    }
+
+    public DirectionsLeg get(RouteCache.Key key) {
+        DirectionsLeg unwritten = pending.get(key);
+        if (unwritten != null) {
+            hits.incrementAndGet();
+            return unwritten;
+        }
+        if (compacting || !lock.readLock().tryLock()) {
+            misses.incrementAndGet();
+            return null;
+        }
+        try {
+            long stored = index.getLong(find(index, slotMask, segment, key.startRow(), key.startColumn(), key.endRow(), key.endColumn()) + 8);
+            if (stored == 0) {
+                misses.incrementAndGet();
+                return null;
+            }
+            int offset = (int) (stored - 1);
+            if (isExpired(offset, System.currentTimeMillis())) {
+                expirations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return read(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 저장 대기열에 넣기만 하고 돌아갑니다. 파일 쓰기가 밀려 대기 중인 키가 MAX_PENDING개를 넘으면 새 키는 버립니다.
+     * 힙 캐시에는 이미 들어 있으므로 버려도 다음 조회에서 다시 저장됩니다.
+     */
+    public void put(RouteCache.Key key, DirectionsLeg leg) {
+        long length = RECORD_HEADER_BYTES + (long) leg.getGeometry().pointCount() * 16;
+        if (length > capacity - HEADER_BYTES
+                || pending.size() >= MAX_PENDING && !pending.containsKey(key)) {
+            rejected.incrementAndGet();
+            return;
+        }
+        pending.put(key, leg);
+        scheduleFlush();
+    }
+
+    /** 대기 중인 결과를 파일에 씁니다. 쓰는 동안 같은 키에 더 새로운 결과가 들어오면 그 결과는 다음 flush에서 씁니다. */
+    void flush() {
+        synchronized (pending) {
+            for (Map.Entry<RouteCache.Key, DirectionsLeg> entry : pending.entrySet()) {
+                write(entry.getKey(), entry.getValue());
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    // 자리가 없으면 쓰지 않고 압축을 예약합니다.
+    private void write(RouteCache.Key key, DirectionsLeg leg) {
+        int length = RECORD_HEADER_BYTES + leg.getGeometry().pointCount() * 16;
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            if (position + (long) length > capacity) {
+                rejected.incrementAndGet();
+                compact = true;
+            } else {
+                append(key, leg, length);
+                compact = deadBytes > capacity / 2;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) {
+            scheduleCompaction();
+        }
+    }
+
+    public Stats stats() {
+        lock.readLock().lock();
+        try {
+            return new Stats(hits.get(), misses.get(), expirations.get(), rejected.get(), compactions.get(),
+                    liveRecords, position, deadBytes, pending.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        lock.writeLock().lock();
+        try {
+            segment.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 살아 있고 TTL이 지나지 않은 레코드를 최근 것부터 새 파일에 옮겨 쓰고 원래 파일과 바꿉니다.
+     * 새 파일은 capacity의 4분의 3까지만 채워 압축 직후에도 쓸 자리가 남게 합니다.
+     */
+    void compact() throws IOException {
+        compacting = true;
+        lock.writeLock().lock();
+        try {
+            long now = System.currentTimeMillis();
+            // {저장 시각, 위치}
+            List<long[]> live = new ArrayList<>(liveRecords);
+            for (int slot = 0; slot <= slotMask; slot++) {
+                long stored = index.getLong(slot * SLOT_BYTES + 8);
+                if (stored != 0 && !isExpired((int) (stored - 1), now)) {
+                    live.add(new long[]{segment.getLong((int) (stored - 1) + 40), stored - 1});
+                }
+            }
+            live.sort(Comparator.comparingLong((long[] record) -> record[0]).reversed());
+
+            Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+            FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer targetSegment = map(target, capacity);
+            writeHeader(targetSegment);
+            int slots = slotsFor(live.size());
+            ByteBuffer targetIndex = newIndex(slots);
+            int budget = capacity / 4 * 3;
+            int targetPosition = HEADER_BYTES;
+            int kept = 0;
+            for (long[] record : live) {
+                int offset = (int) record[1];
+                int length = segment.getInt(offset);
+                if (targetPosition + length > budget) {
+                    continue;
+                }
+                targetSegment.put(targetPosition, segment, offset, length);
+                int slot = find(targetIndex, slots - 1, targetSegment, segment.getLong(offset + 8), segment.getLong(offset + 16),
+                        segment.getLong(offset + 24), segment.getLong(offset + 32));
+                targetIndex.putLong(slot, hashAt(segment, offset));
+                targetIndex.putLong(slot + 8, targetPosition + 1L);
+                targetPosition += length;
+                kept++;
+            }
+            targetSegment.force();
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel.close();
+
+            channel = target;
+            segment = targetSegment;
+            index = targetIndex;
+            slotMask = slots - 1;
+            position = targetPosition;
+            liveRecords = kept;
+            deadBytes = 0;
+            compactions.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+            compacting = false;
+        }
+    }
+
+    // pending이 빌 때까지 boundedElastic에서 flush를 한 번에 하나만 돌립니다.
+    private void scheduleFlush() {
+        if (!flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        Mono.fromRunnable(this::flush)
+                .doFinally(signal -> {
+                    flushScheduled.set(false);
+                    if (!pending.isEmpty()) {
+                        scheduleFlush();
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> System.err.println("길찾기 저장소 쓰기 실패: " + e.getMessage()));
+    }
+
+    // 압축은 파일 IO를 하므로 호출한 스레드(이벤트 루프일 수 있음)가 아니라 boundedElastic에서 한 번에 하나만 돌립니다.
+    private void scheduleCompaction() {
+        if (!compactionScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        Mono.fromRunnable(() -> {
+                    try {
+                        compact();
+                    } catch (IOException e) {
+                        System.err.println("길찾기 저장소 압축 실패: " + e.getMessage());
+                    }
+                })
+                .doFinally(signal -> compactionScheduled.set(false))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe();
+    }
+
+    // 헤더 뒤부터 레코드를 차례로 읽어 색인을 만들고, 첫 번째 깨진 레코드 위치를 쓰기 위치로 삼습니다.
+    private void recover() {
+        long now = System.currentTimeMillis();
+        int offset = HEADER_BYTES;
+        while (offset + RECORD_HEADER_BYTES <= capacity) {
+            int length = segment.getInt(offset);
+            if (!isValid(offset, length)) {
+                break;
+            }
+            if (isExpired(offset, now)) {
+                deadBytes += length;
+            } else {
+                index(offset, length);
+            }
+            offset += length;
+        }
+        position = offset;
+    }
+
+    private boolean isValid(int offset, int length) {
+        if (length < RECORD_HEADER_BYTES || length > capacity - offset) {
+            return false;
+        }
+        int points = segment.getInt(offset + 56);
+        if (points < 0 || RECORD_HEADER_BYTES + (long) points * 16 != length) {
+            return false;
+        }
+        return segment.getInt(offset + 4) == crc(segment, offset, length);
+    }
+
+    private void append(RouteCache.Key key, DirectionsLeg leg, int length) {
+        int offset = position;
+        RouteGeometry geometry = leg.getGeometry();
+        segment.putLong(offset + 8, key.startRow());
+        segment.putLong(offset + 16, key.startColumn());
+        segment.putLong(offset + 24, key.endRow());
+        segment.putLong(offset + 32, key.endColumn());
+        segment.putLong(offset + 40, System.currentTimeMillis());
+        segment.putInt(offset + 48, leg.getDuration());
+        segment.putInt(offset + 52, leg.getDistance());
+        segment.putInt(offset + 56, geometry.pointCount());
+        DoubleBuffer coordinates = segment.slice(offset + RECORD_HEADER_BYTES, length - RECORD_HEADER_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asDoubleBuffer();
+        for (int i = 0; i < geometry.pointCount(); i++) {
+            coordinates.put(geometry.x(i)).put(geometry.y(i));
+        }
+        segment.putInt(offset + 4, crc(segment, offset, length));
+        segment.putInt(offset, length);
+        position += length;
+        index(offset, length);
+    }
+
+    // 같은 키의 이전 레코드가 있으면 위치만 바꾸고 이전 레코드는 버려진 공간으로 셉니다.
+    private void index(int offset, int length) {
+        if ((liveRecords + 1) * 2L > slotMask + 1L) {
+            resizeIndex();
+        }
+        int slot = find(index, slotMask, segment, segment.getLong(offset + 8), segment.getLong(offset + 16),
+                segment.getLong(offset + 24), segment.getLong(offset + 32));
+        long previous = index.getLong(slot + 8);
+        if (previous == 0) {
+            liveRecords++;
+        } else {
+            deadBytes += segment.getInt((int) (previous - 1));
+        }
+        index.putLong(slot, hashAt(segment, offset));
+        index.putLong(slot + 8, offset + 1L);
+    }
+
+    private void resizeIndex() {
+        int slots = (slotMask + 1) * 2;
+        ByteBuffer resized = newIndex(slots);
+        for (int slot = 0; slot <= slotMask; slot++) {
+            long stored = index.getLong(slot * SLOT_BYTES + 8);
+            if (stored != 0) {
+                int offset = (int) (stored - 1);
+                int target = find(resized, slots - 1, segment, segment.getLong(offset + 8), segment.getLong(offset + 16),
+                        segment.getLong(offset + 24), segment.getLong(offset + 32));
+                resized.putLong(target, index.getLong(slot * SLOT_BYTES));
+                resized.putLong(target + 8, stored);
+            }
+        }
+        index = resized;
+        slotMask = slots - 1;
+    }
+
+    // 키가 있는 슬롯이나 처음 만나는 빈 슬롯의 바이트 위치를 돌려줍니다. 해시가 같으면 records에 있는 레코드의 키까지 비교합니다.
+    private static int find(ByteBuffer table, int mask, ByteBuffer records, long startRow, long startColumn, long endRow, long endColumn) {
+        long hash = hash(startRow, startColumn, endRow, endColumn);
+        int slot = (int) hash & mask;
+        while (true) {
+            int at = slot * SLOT_BYTES;
+            long stored = table.getLong(at + 8);
+            if (stored == 0) {
+                return at;
+            }
+            int offset = (int) (stored - 1);
+            if (table.getLong(at) == hash
+                    && records.getLong(offset + 8) == startRow && records.getLong(offset + 16) == startColumn
+                    && records.getLong(offset + 24) == endRow && records.getLong(offset + 32) == endColumn) {
+                return at;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private DirectionsLeg read(int offset) {
+        int points = segment.getInt(offset + 56);
+        double[] coordinates = new double[points * 2];
+        segment.slice(offset + RECORD_HEADER_BYTES, points * 16)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asDoubleBuffer()
+                .get(coordinates);
+        return new DirectionsLeg(segment.getInt(offset + 48), segment.getInt(offset + 52), RouteGeometry.wrap(coordinates, points));
+    }
+
+    private boolean isExpired(int offset, long now) {
+        return now - segment.getLong(offset + 40) > ttlMillis;
+    }
+
+    private boolean hasHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(header, 0);
+        return header.getInt(0) == MAGIC && header.getInt(4) == VERSION;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, int capacity) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private static void writeHeader(ByteBuffer buffer) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+    }
+
+    private static ByteBuffer newIndex(int slots) {
+        return ByteBuffer.allocateDirect(slots * SLOT_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int slotsFor(int records) {
+        int slots = MIN_SLOTS;
+        while (slots < records * 2L) {
+            slots *= 2;
+        }
+        return slots;
+    }
+
+    // 키(long 4개) 뒤부터 레코드 끝까지의 CRC32
+    private static int crc(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + 8, length - 8));
+        return (int) crc.getValue();
+    }
+
+    private static long hashAt(ByteBuffer buffer, int offset) {
+        return hash(buffer.getLong(offset + 8), buffer.getLong(offset + 16), buffer.getLong(offset + 24), buffer.getLong(offset + 32));
+    }
+
+    private static long hash(long startRow, long startColumn, long endRow, long endColumn) {
+        long h = startRow;
+        h = h * 0x9E3779B97F4A7C15L + startColumn;
+        h = h * 0x9E3779B97F4A7C15L + endRow;
+        h = h * 0x9E3779B97F4A7C15L + endColumn;
+        return h ^ (h >>> 31);
+    }
+
+    /** bytes는 파일에서 쓰인 위치(헤더 포함), deadBytes는 그중 덮어쓰였거나 만료되어 압축 때 버려질 크기입니다. */
+    public record Stats(long hits, long misses, long expirations, long rejected, long compactions,
+                        int entries, long bytes, long deadBytes, int pending) {
+    }
+}
@@ -0,0 +1,38 @@
+package hackathon.chatbot.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Vertex AI SDK처럼 블로킹 IO를 하는 호출을 실행할 스케줄러.
+ * virtual-threads는 작업마다 가상 스레드를 만들어 boundedElastic의 스레드 상한(코어 수 x 10) 없이 대기하고,
+ * bounded-elastic은 기존 Reactor 스케줄러를 그대로 씁니다. 동시 호출 수는 vertexAiLimiter가 따로 제한합니다.
+ */
+@Configuration(proxyBeanMethods = false)
+public class BlockingSchedulerConfig {
+
+    public static final String VIRTUAL_THREADS = "virtual-threads";
+    public static final String BOUNDED_ELASTIC = "bounded-elastic";
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler(@Value("${chatbot.blocking.scheduler:" + VIRTUAL_THREADS + "}") String mode) {
+        return create(mode);
+    }
+
+    // Schedulers.boundedElastic()은 공유 캐시 스케줄러라 dispose가 호출돼도 닫히지 않습니다.
+    public static Scheduler create(String mode) {
+        return switch (mode) {
+            case VIRTUAL_THREADS -> Schedulers.fromExecutorService(
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("blocking-vt-", 0).factory()),
+                    "blockingVirtual");
+            case BOUNDED_ELASTIC -> Schedulers.boundedElastic();
+            default -> throw new IllegalArgumentException("Unknown chatbot.blocking.scheduler: " + mode
+                    + " (expected " + VIRTUAL_THREADS + " or " + BOUNDED_ELASTIC + ")");
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package hackathon.chatbot.Config;
+
+import hackathon.chatbot.Session.JdbcHistoryRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import reactor.core.scheduler.Scheduler;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * DB가 설정된 경우에만 대화 기록을 DB에 저장합니다. 없으면 지금처럼 메모리에만 둡니다.
+ * spring.datasource.url을 주거나, docker compose 지원이 compose.yaml의 MySQL로 JdbcConnectionDetails를 만들어 준 경우입니다.
+ * DataSource 자동 설정은 DB가 없으면 시작에 실패하므로 항상 켜 두지 않고, 이 두 경우에만 여기서 불러옵니다.
+ * (spring.datasource.*, spring.datasource.hikari.* 설정은 자동 설정이 그대로 적용합니다.)
+ */
+@Configuration(proxyBeanMethods = false)
+@Conditional(HistoryStoreConfig.DatabaseConfigured.class)
+@Import(DataSourceAutoConfiguration.class)
+public class HistoryStoreConfig {
+
+    @Bean
+    public JdbcHistoryRepository historyRepository(DataSource dataSource,
+                                                   @Qualifier("blockingScheduler") Scheduler blockingScheduler,
+                                                   @Value("${chatbot.history.store.flush-interval:1s}") Duration flushInterval,
+                                                   @Value("${chatbot.history.store.batch-size:100}") int batchSize,
+                                                   @Value("${chatbot.history.store.max-pending:10000}") int maxPending,
+                                                   @Value("${chatbot.history.store.retention:7d}") Duration retention) {
+        return new JdbcHistoryRepository(new JdbcTemplate(dataSource), blockingScheduler, flushInterval,
+                batchSize, maxPending, retention);
+    }
+
+    static class DatabaseConfigured extends AnyNestedCondition {
+
+        DatabaseConfigured() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnProperty("spring.datasource.url")
+        static class Url {
+        }
+
+        @ConditionalOnBean(JdbcConnectionDetails.class)
+        static class ConnectionDetails {
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package hackathon.chatbot.Config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.tcp.SslProvider;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 카카오 API(로컬, 모빌리티) 호출이 함께 쓰는 HTTP 커넥션 풀 설정.
+ * 요청마다 WebClient를 새로 만들지 않고 keep-alive 커넥션과 TLS 세션을 재사용합니다.
+ */
+@Configuration
+public class KakaoHttpConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider kakaoConnectionProvider(
+            @Value("${kakao.http.max-connections:100}") int maxConnections,
+            @Value("${kakao.http.pending-acquire-max-count:500}") int pendingAcquireMaxCount,
+            @Value("${kakao.http.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${kakao.http.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${kakao.http.max-life-time:5m}") Duration maxLifeTime,
+            @Value("${kakao.http.evict-interval:30s}") Duration evictInterval) {
+        return ConnectionProvider.builder("kakao")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInterval)
+                .lifo()
+                .build();
+    }
+
+    @Bean
+    public KakaoConnectionStats kakaoConnectionStats() {
+        return new KakaoConnectionStats();
+    }
+
+    @Bean
+    public ReactorClientHttpConnector kakaoClientHttpConnector(
+            ConnectionProvider kakaoConnectionProvider,
+            KakaoConnectionStats kakaoConnectionStats,
+            @Value("${kakao.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${kakao.http.response-timeout:5s}") Duration responseTimeout,
+            @Value("${kakao.http.tls-session-cache-size:256}") long tlsSessionCacheSize,
+            @Value("${kakao.http.tls-session-timeout:300s}") Duration tlsSessionTimeout) {
+        HttpClient httpClient = HttpClient.create(kakaoConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(responseTimeout)
+                .compress(true)
+                // 세션 캐시를 켜 두면 재연결 시 전체 핸드셰이크 대신 세션 재개(resumption)를 시도합니다.
+                .secure(spec -> spec.sslContext((SslProvider.GenericSslContextSpec<?>) Http11SslContextSpec.forClient()
+                        .configure(builder -> builder
+                                .sessionCacheSize(tlsSessionCacheSize)
+                                .sessionTimeout(tlsSessionTimeout.toSeconds()))))
+                .observe(kakaoConnectionStats);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    /**
+     * 커넥션 풀이 실제로 재사용되는지 확인하기 위한 간단한 카운터.
+     * 새 커넥션(=TLS 핸드셰이크) 수와 풀에서 커넥션을 꺼낸 수를 셉니다.
+     */
+    public static class KakaoConnectionStats implements ConnectionObserver {
+
+        private final AtomicLong connectionsOpened = new AtomicLong();
+        private final AtomicLong connectionsAcquired = new AtomicLong();
+
+        @Override
+        public void onStateChange(reactor.netty.Connection connection, State newState) {
+            if (newState == State.CONNECTED) {
+                connectionsOpened.incrementAndGet();
+            } else if (newState == State.ACQUIRED) {
+                connectionsAcquired.incrementAndGet();
+            }
+        }
+
+        public long getConnectionsOpened() {
+            return connectionsOpened.get();
+        }
+
+        public long getConnectionsAcquired() {
+            return connectionsAcquired.get();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package hackathon.chatbot.Config;
+
+import hackathon.chatbot.Resilience.TokenBucketLimiter;
+import hackathon.chatbot.Resilience.UpstreamGuard;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 카카오 길찾기/키워드 검색 엔드포인트별 서킷 브레이커, 벌크헤드, 마감 시간, 헤지 설정.
+ * 상태와 호출 결과는 resilience4j 태그 메트릭으로 내보냅니다.
+ */
+@Configuration(proxyBeanMethods = false)
+public class KakaoResilienceConfig {
+
+    @Bean
+    public CircuitBreakerRegistry kakaoCircuitBreakerRegistry(
+            @Value("${kakao.resilience.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${kakao.resilience.sliding-window-size:50}") int slidingWindowSize,
+            @Value("${kakao.resilience.wait-in-open-state:10s}") Duration waitInOpenState) {
+        return CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(Math.min(slidingWindowSize, 20))
+                .waitDurationInOpenState(waitInOpenState)
+                .build());
+    }
+
+    // 자리가 없으면 기다리지 않고 바로 실패시킵니다. 기다리는 동안 마감 시간만 잡아먹기 때문입니다.
+    @Bean
+    public BulkheadRegistry kakaoBulkheadRegistry(
+            @Value("${kakao.resilience.max-concurrent-calls:64}") int maxConcurrentCalls) {
+        return BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    @Bean
+    public MeterBinder kakaoResilienceMetrics(CircuitBreakerRegistry kakaoCircuitBreakerRegistry,
+                                              BulkheadRegistry kakaoBulkheadRegistry) {
+        return registry -> {
+            TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(kakaoCircuitBreakerRegistry).bindTo(registry);
+            TaggedBulkheadMetrics.ofBulkheadRegistry(kakaoBulkheadRegistry).bindTo(registry);
+        };
+    }
+
+    @Bean
+    public UpstreamGuard kakaoDirectionsGuard(CircuitBreakerRegistry kakaoCircuitBreakerRegistry,
+                                              BulkheadRegistry kakaoBulkheadRegistry,
+                                              TokenBucketLimiter kakaoMobilityLimiter,
+                                              MeterRegistry meterRegistry,
+                                              @Value("${kakao.resilience.directions.timeout:3s}") Duration timeout,
+                                              @Value("${kakao.resilience.hedge.enabled:true}") boolean hedgeEnabled,
+                                              @Value("${kakao.resilience.hedge.min-delay:50ms}") Duration minHedgeDelay,
+                                              @Value("${kakao.resilience.hedge.max-delay:1s}") Duration maxHedgeDelay) {
+        return new UpstreamGuard("kakao-directions",
+                kakaoCircuitBreakerRegistry.circuitBreaker("kakao-directions"),
+                kakaoBulkheadRegistry.bulkhead("kakao-directions"),
+                kakaoMobilityLimiter, timeout, hedgeEnabled, minHedgeDelay, maxHedgeDelay, meterRegistry);
+    }
+
+    @Bean
+    public UpstreamGuard kakaoSearchGuard(CircuitBreakerRegistry kakaoCircuitBreakerRegistry,
+                                          BulkheadRegistry kakaoBulkheadRegistry,
+                                          TokenBucketLimiter kakaoLocalLimiter,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${kakao.resilience.search.timeout:2s}") Duration timeout,
+                                          @Value("${kakao.resilience.hedge.enabled:true}") boolean hedgeEnabled,
+                                          @Value("${kakao.resilience.hedge.min-delay:50ms}") Duration minHedgeDelay,
+                                          @Value("${kakao.resilience.hedge.max-delay:1s}") Duration maxHedgeDelay) {
+        return new UpstreamGuard("kakao-search",
+                kakaoCircuitBreakerRegistry.circuitBreaker("kakao-search"),
+                kakaoBulkheadRegistry.bulkhead("kakao-search"),
+                kakaoLocalLimiter, timeout, hedgeEnabled, minHedgeDelay, maxHedgeDelay, meterRegistry);
+    }
+}
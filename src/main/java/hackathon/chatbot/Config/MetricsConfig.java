@@ -0,0 +1,114 @@
+package hackathon.chatbot.Config;
+
+import hackathon.chatbot.Cache.PlaceSearchCache;
+import hackathon.chatbot.Cache.RouteCache;
+import hackathon.chatbot.Cache.RouteStore;
+import hackathon.chatbot.Metrics.BoundedElasticMetrics;
+import hackathon.chatbot.Poi.PoiIndex;
+import hackathon.chatbot.Resilience.TokenBucketLimiter;
+import hackathon.chatbot.Session.ConversationStore;
+import hackathon.chatbot.Session.JdbcHistoryRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 캐시, 장소 색인, 호출 한도 대기열, 세션, 기록 저장소, 커넥션 풀, boundedElastic 스케줄러 상태를 Micrometer에 연결합니다.
+ * 두 애플리케이션이 같이 쓰므로 한쪽에만 있는 빈은 있을 때만 등록합니다.
+ */
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig {
+
+    @Bean
+    public BoundedElasticMetrics boundedElasticMetrics() {
+        return new BoundedElasticMetrics();
+    }
+
+    @Bean
+    public MeterBinder kakaoConnectionMetrics(KakaoHttpConfig.KakaoConnectionStats stats) {
+        return registry -> {
+            FunctionCounter.builder("kakao.http.connections.opened", stats, KakaoHttpConfig.KakaoConnectionStats::getConnectionsOpened)
+                    .register(registry);
+            FunctionCounter.builder("kakao.http.connections.acquired", stats, KakaoHttpConfig.KakaoConnectionStats::getConnectionsAcquired)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder rateLimitMetrics(ObjectProvider<TokenBucketLimiter> limiters) {
+        return registry -> limiters.orderedStream().forEach(limiter ->
+                Gauge.builder("ratelimit.queued", limiter, TokenBucketLimiter::waiting)
+                        .tag("upstream", limiter.upstream())
+                        .register(registry));
+    }
+
+    @Bean
+    public MeterBinder routeCacheMetrics(RouteCache routeCache) {
+        return registry -> {
+            FunctionCounter.builder("cache.route.hits", routeCache, c -> c.stats().hits()).register(registry);
+            FunctionCounter.builder("cache.route.misses", routeCache, c -> c.stats().misses()).register(registry);
+            FunctionCounter.builder("cache.route.evictions", routeCache, c -> c.stats().evictions()).register(registry);
+            Gauge.builder("cache.route.size", routeCache, c -> c.stats().size()).register(registry);
+            Gauge.builder("cache.route.vertexes", routeCache, c -> c.stats().vertexes()).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder routeStoreMetrics(ObjectProvider<RouteStore> routeStore) {
+        return registry -> routeStore.ifAvailable(store -> {
+            FunctionCounter.builder("cache.route_store.hits", store, s -> s.stats().hits()).register(registry);
+            FunctionCounter.builder("cache.route_store.misses", store, s -> s.stats().misses()).register(registry);
+            FunctionCounter.builder("cache.route_store.expirations", store, s -> s.stats().expirations()).register(registry);
+            FunctionCounter.builder("cache.route_store.rejected", store, s -> s.stats().rejected()).register(registry);
+            FunctionCounter.builder("cache.route_store.compactions", store, s -> s.stats().compactions()).register(registry);
+            Gauge.builder("cache.route_store.size", store, s -> s.stats().entries()).register(registry);
+            Gauge.builder("cache.route_store.bytes", store, s -> s.stats().bytes()).register(registry);
+            Gauge.builder("cache.route_store.dead_bytes", store, s -> s.stats().deadBytes()).register(registry);
+            Gauge.builder("cache.route_store.pending", store, s -> s.stats().pending()).register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder placeSearchCacheMetrics(ObjectProvider<PlaceSearchCache> placeSearchCache) {
+        return registry -> placeSearchCache.ifAvailable(cache -> {
+            FunctionCounter.builder("cache.place_search.hits", cache, c -> c.stats().hits()).register(registry);
+            FunctionCounter.builder("cache.place_search.misses", cache, c -> c.stats().misses()).register(registry);
+            FunctionCounter.builder("cache.place_search.coalesced", cache, c -> c.stats().coalesced()).register(registry);
+            Gauge.builder("cache.place_search.size", cache, c -> c.stats().size()).register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder poiIndexMetrics(ObjectProvider<PoiIndex> poiIndex) {
+        return registry -> poiIndex.ifAvailable(index -> {
+            FunctionCounter.builder("poi.index.hits", index, i -> i.stats().hits()).register(registry);
+            FunctionCounter.builder("poi.index.misses", index, i -> i.stats().misses()).register(registry);
+            Gauge.builder("poi.index.documents", index, i -> i.stats().documents()).register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder conversationStoreMetrics(ObjectProvider<ConversationStore> conversationStore) {
+        return registry -> conversationStore.ifAvailable(store -> {
+            Gauge.builder("chatbot.sessions.live", store, s -> s.stats().liveSessions()).register(registry);
+            Gauge.builder("chatbot.sessions.bytes", store, s -> s.stats().totalBytes()).register(registry);
+            Gauge.builder("chatbot.sessions.history_tokens", store, s -> s.stats().historyTokens()).register(registry);
+            FunctionCounter.builder("chatbot.sessions.evicted", store, s -> s.stats().evicted()).register(registry);
+        });
+    }
+
+    @Bean
+    public MeterBinder historyRepositoryMetrics(ObjectProvider<JdbcHistoryRepository> historyRepository) {
+        return registry -> historyRepository.ifAvailable(repository -> {
+            Gauge.builder("chatbot.history.store.pending", repository, r -> r.stats().pending()).register(registry);
+            FunctionCounter.builder("chatbot.history.store.written", repository, r -> r.stats().written()).register(registry);
+            FunctionCounter.builder("chatbot.history.store.batches", repository, r -> r.stats().batches()).register(registry);
+            FunctionCounter.builder("chatbot.history.store.failures", repository, r -> r.stats().failures()).register(registry);
+            FunctionCounter.builder("chatbot.history.store.dropped", repository, r -> r.stats().dropped()).register(registry);
+            FunctionCounter.builder("chatbot.history.store.loads", repository, r -> r.stats().loads()).register(registry);
+        });
+    }
+}
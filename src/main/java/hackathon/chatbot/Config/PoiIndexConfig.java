@@ -0,0 +1,30 @@
+package hackathon.chatbot.Config;
+
+import hackathon.chatbot.Poi.PoiIndex;
+import hackathon.chatbot.Poi.PoiIndexBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * poi.index.path가 설정된 경우에만 로컬 장소 색인을 엽니다.
+ * poi.index.source(CSV/JSONL)도 주면 색인이 없거나 원본보다 오래됐을 때 시작하면서 다시 만듭니다.
+ */
+@Configuration(proxyBeanMethods = false)
+public class PoiIndexConfig {
+
+    @Bean
+    @ConditionalOnProperty("poi.index.path")
+    public PoiIndex poiIndex(@Value("${poi.index.path}") Path path,
+                             @Value("${poi.index.source:}") String source,
+                             @Value("${poi.index.anchor-radius-meters:1000}") double anchorRadiusMeters) throws IOException {
+        if (!source.isBlank()) {
+            PoiIndexBuilder.buildIfStale(Path.of(source), path);
+        }
+        return PoiIndex.open(path, anchorRadiusMeters);
+    }
+}
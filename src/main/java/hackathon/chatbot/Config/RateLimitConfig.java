@@ -0,0 +1,43 @@
+package hackathon.chatbot.Config;
+
+import hackathon.chatbot.Resilience.TokenBucketLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 외부 API별 호출 한도(토큰 버킷). 같은 API 키를 쓰는 호출은 모두 같은 제한기를 거칩니다.
+ */
+@Configuration(proxyBeanMethods = false)
+public class RateLimitConfig {
+
+    @Bean
+    public TokenBucketLimiter kakaoLocalLimiter(MeterRegistry meterRegistry,
+                                                @Value("${ratelimit.kakao-local.permits-per-second:30}") double permitsPerSecond,
+                                                @Value("${ratelimit.kakao-local.burst:60}") int burst,
+                                                @Value("${ratelimit.kakao-local.max-queue:256}") int maxQueue,
+                                                @Value("${ratelimit.kakao-local.max-wait:2s}") Duration maxWait) {
+        return new TokenBucketLimiter("kakao-local", permitsPerSecond, burst, maxQueue, maxWait, meterRegistry);
+    }
+
+    @Bean
+    public TokenBucketLimiter kakaoMobilityLimiter(MeterRegistry meterRegistry,
+                                                   @Value("${ratelimit.kakao-mobility.permits-per-second:30}") double permitsPerSecond,
+                                                   @Value("${ratelimit.kakao-mobility.burst:60}") int burst,
+                                                   @Value("${ratelimit.kakao-mobility.max-queue:512}") int maxQueue,
+                                                   @Value("${ratelimit.kakao-mobility.max-wait:2s}") Duration maxWait) {
+        return new TokenBucketLimiter("kakao-mobility", permitsPerSecond, burst, maxQueue, maxWait, meterRegistry);
+    }
+
+    @Bean
+    public TokenBucketLimiter vertexAiLimiter(MeterRegistry meterRegistry,
+                                              @Value("${ratelimit.vertex-ai.permits-per-second:5}") double permitsPerSecond,
+                                              @Value("${ratelimit.vertex-ai.burst:10}") int burst,
+                                              @Value("${ratelimit.vertex-ai.max-queue:64}") int maxQueue,
+                                              @Value("${ratelimit.vertex-ai.max-wait:5s}") Duration maxWait) {
+        return new TokenBucketLimiter("vertex-ai", permitsPerSecond, burst, maxQueue, maxWait, meterRegistry);
+    }
+}
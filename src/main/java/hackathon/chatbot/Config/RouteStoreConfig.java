@@ -0,0 +1,27 @@
+package hackathon.chatbot.Config;
+
+import hackathon.chatbot.Cache.RouteStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * kakao.route.store.path가 설정된 경우에만 길찾기 결과를 파일에도 저장해 재시작 뒤에도 캐시가 차 있게 합니다.
+ * 컨테이너라면 이 경로를 볼륨에 두어야 배포 사이에 남습니다.
+ */
+@Configuration(proxyBeanMethods = false)
+public class RouteStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty("kakao.route.store.path")
+    public RouteStore routeStore(@Value("${kakao.route.store.path}") Path path,
+                                 @Value("${kakao.route.store.ttl:24h}") Duration ttl,
+                                 @Value("${kakao.route.store.max-bytes:268435456}") int maxBytes) throws IOException {
+        return RouteStore.open(path, ttl, maxBytes);
+    }
+}
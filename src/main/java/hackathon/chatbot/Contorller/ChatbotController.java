@@ -2,29 +2,73 @@ package hackathon.chatbot.Contorller;
 
 import hackathon.chatbot.Dto.ChatRequest;
 import hackathon.chatbot.Dto.ChatResponse;
+import hackathon.chatbot.Metrics.UpstreamMetrics;
+import hackathon.chatbot.Resilience.RequestPriority;
+import hackathon.chatbot.Resilience.UpstreamOverloadedException;
 import hackathon.chatbot.Service.ChatbotService;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono; // Mono 임포트
 
+import java.util.Map;
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/chatbot")
 public class ChatbotController {
 
     private final ChatbotService chatbotService;
+    private final UpstreamMetrics upstreamMetrics;
 
-    public ChatbotController(ChatbotService chatbotService) {
+    public ChatbotController(ChatbotService chatbotService, UpstreamMetrics upstreamMetrics) {
         this.chatbotService = chatbotService;
+        this.upstreamMetrics = upstreamMetrics;
     }
 
     @PostMapping("/ask")
     // 반환 타입을 Mono<ChatResponse>으로 변경
     public Mono<ChatResponse> ask(@RequestBody ChatRequest request) {
+        String sessionId = resolveSessionId(request);
         // Mono<String>을 Mono<ChatResponse>로 변환
-        return chatbotService.getChatbotResponse(request.getPlaceName(), request.getQuestion())
-                .map(ChatResponse::new); // String 결과를 ChatResponse 객체로 맵핑
+        return RequestPriority.INTERACTIVE.applyTo(upstreamMetrics.fanOut("chatbot.ask",
+                        chatbotService.getChatbotResponse(sessionId, request.getPlaceName(), request.getQuestion())))
+                .map(answer -> new ChatResponse(answer, sessionId)); // String 결과를 ChatResponse 객체로 맵핑
+    }
+
+    // 답변을 생성되는 대로 SSE로 보냅니다. session 이벤트로 시작해 token 이벤트가 이어지고 마지막에 done 이벤트가 옵니다.
+    // session 이벤트를 보낸 뒤에는 응답 상태를 바꿀 수 없으므로, 중간에 실패하면 done 대신 error 이벤트로 끝냅니다.
+    @PostMapping(value = "/ask/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> askStream(@RequestBody ChatRequest request) {
+        String sessionId = resolveSessionId(request);
+        return Flux.concat(
+                        Mono.just(ServerSentEvent.<Object>builder(sessionId).event("session").build()),
+                        RequestPriority.INTERACTIVE.applyTo(upstreamMetrics.fanOut("chatbot.ask.stream",
+                                        chatbotService.streamChatbotResponse(sessionId, request.getPlaceName(), request.getQuestion())))
+                                .map(token -> ServerSentEvent.<Object>builder(token).event("token").build()),
+                        Mono.just(ServerSentEvent.<Object>builder("").event("done").build()))
+                .onErrorResume(e -> Mono.just(errorEvent(e)));
+    }
+
+    // 호출 한도 초과는 /ask의 503 응답과 같은 내용을 싣고, SSE retry 필드로도 다시 시도할 시간을 알려 줍니다.
+    private static ServerSentEvent<Object> errorEvent(Throwable e) {
+        if (e instanceof UpstreamOverloadedException overloaded) {
+            return ServerSentEvent.<Object>builder(Map.of("error", "upstream_overloaded", "upstream", overloaded.getUpstream(),
+                            "retryAfter", overloaded.getRetryAfter().toSeconds()))
+                    .event("error")
+                    .retry(overloaded.getRetryAfter())
+                    .build();
+        }
+        return ServerSentEvent.<Object>builder(Map.of("error", "upstream_failed")).event("error").build();
+    }
+
+    private String resolveSessionId(ChatRequest request) {
+        String sessionId = request.getSessionId();
+        return (sessionId == null || sessionId.isBlank()) ? UUID.randomUUID().toString() : sessionId;
     }
 }
\ No newline at end of file
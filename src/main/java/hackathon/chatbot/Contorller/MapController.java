@@ -1,14 +1,23 @@
 package hackathon.chatbot.Contorller;
 
 import hackathon.chatbot.Dto.LocationRequest;
+import hackathon.chatbot.Dto.MatrixRequest;
+import hackathon.chatbot.Dto.MeetPointMode;
 import hackathon.chatbot.Dto.MiddlePointResponse;
-import hackathon.chatbot.Service.MeetPointService;
+import hackathon.chatbot.Dto.TravelMatrix;
+import hackathon.chatbot.Metrics.UpstreamMetrics;
+import hackathon.chatbot.Service.FairMeetPointService;
+import hackathon.chatbot.Service.TravelMatrixService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -18,9 +27,30 @@ import java.util.List;
 
 
 public class MapController {
-    private final hackathon.chatbot.Service.MeetPointService meetPointService;
+    private final FairMeetPointService fairMeetPointService;
+    private final TravelMatrixService travelMatrixService;
+    private final UpstreamMetrics upstreamMetrics;
+    // mode: centroid(기본, 좌표 평균), min_max(최장 이동 시간 최소), min_sum(이동 시간 합 최소)
     @PostMapping("/middle")
-    public ResponseEntity<MiddlePointResponse> getMiddlePoint(@RequestBody List<LocationRequest> locations) {
-        return ResponseEntity.ok(meetPointService.calculateMiddlePoint(locations));
+    public Mono<ResponseEntity<MiddlePointResponse>> getMiddlePoint(@RequestBody List<LocationRequest> locations,
+                                                                    @RequestParam(required = false) String mode) {
+        return upstreamMetrics.fanOut("map.middle", fairMeetPointService.findMeetPoint(locations, parseMode(mode)))
+                .map(ResponseEntity::ok);
+    }
+
+    // 모르는 mode는 서버 오류(500)가 아니라 잘못된 요청(400)으로 돌려줍니다.
+    private static MeetPointMode parseMode(String mode) {
+        try {
+            return MeetPointMode.from(mode);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // 출발지 x 도착지 이동 시간/거리 행렬 (행 우선 1차원 배열, 길이 없으면 -1)
+    @PostMapping("/matrix")
+    public Mono<ResponseEntity<TravelMatrix>> getTravelMatrix(@RequestBody MatrixRequest request) {
+        return upstreamMetrics.fanOut("map.matrix", travelMatrixService.compute(request.getOrigins(), request.getDestinations()))
+                .map(ResponseEntity::ok);
     }
 }
@@ -0,0 +1,23 @@
+package hackathon.chatbot.Contorller;
+
+import hackathon.chatbot.Resilience.UpstreamOverloadedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+// 외부 API 호출 한도를 넘겼거나 벌크헤드가 가득 찼거나 서킷 브레이커가 열려 요청을 버린 경우
+// (UpstreamGuard가 모두 UpstreamOverloadedException으로 바꿉니다) 503과 함께 다시 시도할 시간을 알려 줍니다.
+@RestControllerAdvice
+public class OverloadExceptionHandler {
+
+    @ExceptionHandler(UpstreamOverloadedException.class)
+    public ResponseEntity<Map<String, String>> handleOverloaded(UpstreamOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfter().toSeconds()))
+                .body(Map.of("error", "upstream_overloaded", "upstream", e.getUpstream()));
+    }
+}
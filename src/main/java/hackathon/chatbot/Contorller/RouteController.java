@@ -3,6 +3,7 @@ package hackathon.chatbot.Contorller;
 import hackathon.chatbot.Dto.LocationRequest;
 import hackathon.chatbot.Dto.RouteRequest;
 import hackathon.chatbot.Dto.RouteResult;
+import hackathon.chatbot.Metrics.UpstreamMetrics;
 import hackathon.chatbot.Service.RouteService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -19,11 +21,13 @@ import java.util.List;
 public class RouteController {
 
     private final RouteService routeService;
+    private final UpstreamMetrics upstreamMetrics;
 
     @PostMapping("/route")
-    public ResponseEntity<List<RouteResult>> getRoutes(@RequestBody RouteRequest request){
+    public Mono<ResponseEntity<List<RouteResult>>> getRoutes(@RequestBody RouteRequest request){
         List<LocationRequest> origins = request.getLocations();
-        List<RouteResult> results = routeService.calculateRouteToMiddle(origins);
-        return ResponseEntity.ok(results);
+        return upstreamMetrics.fanOut("map.route",
+                        routeService.calculateRouteToMiddle(origins, request.getMode(), request.toPathOptions()))
+                .map(ResponseEntity::ok);
     }
 }
@@ -6,6 +6,7 @@ import lombok.Setter;
 @Getter
 @Setter
 public class ChatRequest {
+    private String sessionId; // 비어 있으면 서버가 새로 발급해 응답에 담아 돌려줍니다
     private String placeName;
     private String question;
 }
@@ -11,4 +11,5 @@ import lombok.Setter;
 @AllArgsConstructor
 public class ChatResponse {
     private String answer;
+    private String sessionId;
 }
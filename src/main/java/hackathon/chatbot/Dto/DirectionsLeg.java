@@ -0,0 +1,17 @@
+package hackathon.chatbot.Dto;
+
+import hackathon.chatbot.Geo.RouteGeometry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 길찾기 한 구간의 요약과 경로 좌표.
+ * 좌표는 원시 배열 기반의 {@link RouteGeometry}로 들고 있어 캐시에 오래 두어도 부담이 적습니다.
+ */
+@Getter
+@AllArgsConstructor
+public class DirectionsLeg {
+    private final int duration;
+    private final int distance;
+    private final RouteGeometry geometry;
+}
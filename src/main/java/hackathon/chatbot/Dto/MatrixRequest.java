@@ -0,0 +1,11 @@
+package hackathon.chatbot.Dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MatrixRequest {
+    private List<LocationRequest> origins;
+    private List<LocationRequest> destinations;
+}
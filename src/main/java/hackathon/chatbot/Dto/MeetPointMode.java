@@ -0,0 +1,45 @@
+package hackathon.chatbot.Dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * 중간 지점을 고르는 기준.
+ * <ul>
+ *     <li>{@code centroid}: 출발 좌표의 산술 평균 (기본값)</li>
+ *     <li>{@code min_max}: 가장 오래 걸리는 사람의 이동 시간이 최소인 지점</li>
+ *     <li>{@code min_sum}: 모든 사람의 이동 시간 합이 최소인 지점</li>
+ * </ul>
+ */
+public enum MeetPointMode {
+    CENTROID,
+    MIN_MAX,
+    MIN_SUM;
+
+    @JsonCreator
+    public static MeetPointMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return CENTROID;
+        }
+        String name = value.trim().replace('-', '_').toUpperCase(Locale.ROOT);
+        for (MeetPointMode mode : values()) {
+            if (mode.name().equals(name)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("mode는 " + allowedValues() + " 중 하나여야 합니다: " + value);
+    }
+
+    public static String allowedValues() {
+        return Arrays.stream(values()).map(MeetPointMode::value).collect(Collectors.joining(", "));
+    }
+
+    @JsonValue
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,11 +1,20 @@
 package hackathon.chatbot.Dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.util.List;
+
 @Getter
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class MiddlePointResponse {
     private double x;
     private double y;
+    private List<Integer> etas; // 이동 시간 기준 모드일 때 참가자별 예상 소요 시간(초), 입력 순서대로
+
+    public MiddlePointResponse(double x, double y) {
+        this(x, y, null);
+    }
 }
@@ -1,9 +0,0 @@
-package hackathon.chatbot.Dto;
-
-import lombok.Getter;
-import java.util.List;
-
-@Getter
-public class Road {
-    private List<Double> vertexes;
-}
@@ -1,5 +1,7 @@
 package hackathon.chatbot.Dto;
 
+import hackathon.chatbot.Geo.PathFormat;
+import hackathon.chatbot.Geo.PathOptions;
 import lombok.Data;
 
 import java.util.List;
@@ -7,4 +9,12 @@ import java.util.List;
 @Data
 public class RouteRequest {
     private List<LocationRequest> locations;
+    private MeetPointMode mode; // 중간 지점 선택 기준, 없으면 centroid
+    private PathFormat pathFormat; // points(기본), polyline, delta
+    private Double tolerance; // 경로 단순화 허용 오차(m)
+    private Double zoom; // tolerance 대신 지도 줌 레벨(웹 메르카토르)로 지정할 때
+
+    public PathOptions toPathOptions() {
+        return new PathOptions(pathFormat, tolerance, zoom);
+    }
 }
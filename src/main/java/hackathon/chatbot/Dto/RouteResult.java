@@ -1,16 +1,23 @@
 package hackathon.chatbot.Dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import hackathon.chatbot.Geo.PathFormat;
 import lombok.Getter;
 
 import java.util.List;
 
 @Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class RouteResult {
     private double endX;
     private double endY;
     private int duration;
     private int distance;
     private List<Point> path;
+    private PathFormat pathFormat; // encodedPath를 쓸 때만 채워집니다
+    private String encodedPath;
+    private Integer originalPointCount; // 경로 단순화를 요청했을 때만 채워집니다
+    private Integer pointCount;
     public RouteResult(double endX, double endY, int duration, int distance,List<Point>path) {
         this.endX = endX;
         this.endY = endY;
@@ -18,4 +25,16 @@ public class RouteResult {
         this.distance = distance;
         this.path = path;
     }
+    public RouteResult(double endX, double endY, int duration, int distance, PathFormat pathFormat, String encodedPath) {
+        this.endX = endX;
+        this.endY = endY;
+        this.duration = duration;
+        this.distance = distance;
+        this.pathFormat = pathFormat;
+        this.encodedPath = encodedPath;
+    }
+    public void setSimplification(int originalPointCount, int pointCount) {
+        this.originalPointCount = originalPointCount;
+        this.pointCount = pointCount;
+    }
 }
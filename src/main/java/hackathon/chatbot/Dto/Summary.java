@@ -1,9 +0,0 @@
-package hackathon.chatbot.Dto;
-
-import lombok.Getter;
-
-@Getter
-public class Summary {
-    private int duration;
-    private int distance;
-}
@@ -0,0 +1,25 @@
+package hackathon.chatbot.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 출발지 x 도착지 이동 시간/거리 행렬.
+ * 행 우선(row-major) 1차원 배열로 담고, 길을 찾지 못한 칸은 -1입니다.
+ */
+@Getter
+@AllArgsConstructor
+public class TravelMatrix {
+    private final int rows; // 출발지 수
+    private final int cols; // 도착지 수
+    private final int[] durations; // 초
+    private final int[] distances; // 미터
+
+    public int duration(int row, int col) {
+        return durations[row * cols + col];
+    }
+
+    public int distance(int row, int col) {
+        return distances[row * cols + col];
+    }
+}
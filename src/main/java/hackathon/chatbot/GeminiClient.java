@@ -9,29 +9,62 @@ import com.google.cloud.vertexai.api.Type;
 import com.google.cloud.vertexai.api.Part;
 import com.google.cloud.vertexai.api.Content;
 import com.google.cloud.vertexai.api.FunctionResponse;
+import com.google.cloud.vertexai.api.FunctionCall;
+import com.google.cloud.vertexai.api.FunctionCallingConfig;
+import com.google.cloud.vertexai.api.ToolConfig;
 import com.google.cloud.vertexai.generativeai.GenerativeModel;
-import com.google.cloud.vertexai.generativeai.ResponseHandler;
+import hackathon.chatbot.Metrics.UpstreamMetrics;
+import hackathon.chatbot.Resilience.TokenBucketLimiter;
+import hackathon.chatbot.Resilience.UpstreamOverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.google.protobuf.Struct;
 import com.google.protobuf.Value;
 import com.google.protobuf.ListValue;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
 @Component
 public class GeminiClient {
 
+    private static final Logger log = LoggerFactory.getLogger(GeminiClient.class);
+
+    public static final String INIT_BACKGROUND = "background";
+    public static final String INIT_LAZY = "lazy";
+
+    // 매 턴 같은 답변 양식 지시문을 질문마다 붙이지 않고 system instruction으로 한 번만 둡니다.
+    // 요청마다 앞부분(시스템 지시문 + 도구 선언)이 똑같아 Vertex AI의 접두사 캐시에 걸릴 수 있습니다.
+    static final String SYSTEM_INSTRUCTION = """
+            사용자는 특정 장소 주변에 대해 질문합니다. 질문에 답하기 위해 search_places로 적절한 장소를 검색해야 합니다.
+
+            장소 검색 결과가 있다면, 다음 양식에 맞춰 장소를 추천해주세요:
+
+            [번호]. [장소 이름] ([장소 카테고리])
+            주소: [장소 주소]
+            전화번호: [장소 전화번호 (없으면 '정보 없음')]
+            상세 정보: [장소 상세정보 URL (없으면 '정보 없음')]
+            설명: [해당 장소에 대한 간략한 특징, 분위기, 추천 메뉴 등을 모델이 직접 생성하여 설명]
+
+            각 추천 장소는 서로 다른 단락(두 줄 바꿈)으로 구분해주세요.
+
+            만약 검색 결과가 없다면, '죄송합니다. 요청하신 조건에 맞는 장소를 찾을 수 없습니다. 다른 검색 조건을 알려주시겠어요?'와 같이 친절하게 응답해주세요.""";
+
     @org.springframework.beans.factory.annotation.Value("${gemini.api-key}")
     private final String geminiApiKey;
 
@@ -41,28 +74,69 @@ public class GeminiClient {
     @org.springframework.beans.factory.annotation.Value("${GOOGLE_CLOUD_PROJECT_ID}")
     private final String projectId;
 
-    private VertexAI vertexAI;
-    private GenerativeModel model;
     private final ObjectMapper objectMapper;
+    private final UpstreamMetrics upstreamMetrics;
+    private final TokenBucketLimiter vertexAiLimiter;
+    private final Scheduler blockingScheduler;
+    // VertexAI 클라이언트와 모델은 처음 구독할 때 한 번만 만들고, 실패하면 다음 호출에서 다시 시도합니다.
+    private final Mono<Models> models;
+    private final String initMode;
+    private volatile VertexAI vertexAI;
+    private final int maxToolSteps;
+    private final Duration toolTimeBudget;
+    private final int maxParallelTools;
 
     public GeminiClient(
             ObjectMapper objectMapper,
+            UpstreamMetrics upstreamMetrics,
+            @Qualifier("vertexAiLimiter") TokenBucketLimiter vertexAiLimiter,
+            @Qualifier("blockingScheduler") Scheduler blockingScheduler,
             @org.springframework.beans.factory.annotation.Value("${gemini.api-key}") String geminiApiKey,
             @org.springframework.beans.factory.annotation.Value("${gemini.model-name}") String geminiModelName,
-            @org.springframework.beans.factory.annotation.Value("${GOOGLE_CLOUD_PROJECT_ID}") String projectId
+            @org.springframework.beans.factory.annotation.Value("${GOOGLE_CLOUD_PROJECT_ID}") String projectId,
+            @org.springframework.beans.factory.annotation.Value("${gemini.tools.max-steps:4}") int maxToolSteps,
+            @org.springframework.beans.factory.annotation.Value("${gemini.tools.time-budget:8s}") Duration toolTimeBudget,
+            @org.springframework.beans.factory.annotation.Value("${gemini.tools.max-parallel:4}") int maxParallelTools,
+            @org.springframework.beans.factory.annotation.Value("${gemini.init:" + INIT_BACKGROUND + "}") String initMode
     ) {
         this.objectMapper = objectMapper;
+        this.upstreamMetrics = upstreamMetrics;
+        this.vertexAiLimiter = vertexAiLimiter;
+        this.blockingScheduler = blockingScheduler;
         this.geminiApiKey = geminiApiKey;
         this.geminiModelName = geminiModelName;
         this.projectId = projectId;
+        this.maxToolSteps = maxToolSteps;
+        this.toolTimeBudget = toolTimeBudget;
+        this.maxParallelTools = maxParallelTools;
+        if (!INIT_BACKGROUND.equals(initMode) && !INIT_LAZY.equals(initMode)) {
+            throw new IllegalArgumentException("Unknown gemini.init: " + initMode
+                    + " (expected " + INIT_BACKGROUND + " or " + INIT_LAZY + ")");
+        }
+        this.initMode = initMode;
+        this.models = Mono.fromCallable(this::createModels)
+                .subscribeOn(blockingScheduler)
+                .cache(created -> Duration.ofMillis(Long.MAX_VALUE), error -> Duration.ZERO, () -> Duration.ZERO);
     }
 
+    /**
+     * VertexAI 클라이언트(gRPC 채널, 인증 등) 생성은 시작 시간을 크게 늘리므로 컨텍스트 초기화에서 빼냅니다.
+     * background(기본)면 시작하면서 blockingScheduler에서 미리 만들어 두고, lazy면 첫 질문이 올 때 만듭니다.
+     * 어느 쪽이든 다 만들어지기 전에 온 질문은 만들어질 때까지 기다립니다.
+     */
     @PostConstruct
-    public void init() throws IOException {
+    public void init() {
+        if (INIT_BACKGROUND.equals(initMode)) {
+            models.subscribe(created -> { }, e -> log.warn("VertexAI 미리 초기화 실패 (첫 호출에서 다시 시도)", e));
+        }
+    }
+
+    private Models createModels() throws IOException {
         String location = "us-central1";
 
+        VertexAI client = null;
         try {
-            this.vertexAI = new VertexAI(projectId, location);
+            client = new VertexAI(projectId, location);
 
             FunctionDeclaration searchPlacesFunction = FunctionDeclaration.newBuilder()
                     .setName("search_places")
@@ -77,12 +151,39 @@ public class GeminiClient {
                             .build())
                     .build();
 
-            this.model = new GenerativeModel(geminiModelName, vertexAI)
-                    .withTools(Arrays.asList(Tool.newBuilder().addFunctionDeclarations(searchPlacesFunction).build()));
-
+            GenerativeModel model = new GenerativeModel(geminiModelName, client)
+                    .withTools(Arrays.asList(Tool.newBuilder().addFunctionDeclarations(searchPlacesFunction).build()))
+                    .withSystemInstruction(Content.newBuilder()
+                            .setRole("system")
+                            .addParts(Part.newBuilder().setText(SYSTEM_INSTRUCTION))
+                            .build());
+            // withToolConfig는 system instruction과 도구 선언을 그대로 복사합니다.
+            GenerativeModel answerModel = model.withToolConfig(ToolConfig.newBuilder()
+                    .setFunctionCallingConfig(FunctionCallingConfig.newBuilder().setMode(FunctionCallingConfig.Mode.NONE))
+                    .build());
+            Models created = new Models(model, answerModel);
+            // 모델까지 다 만든 뒤에만 넘겨받습니다. 실패한 시도의 클라이언트가 cleanup 대상으로 남지 않게 합니다.
+            this.vertexAI = client;
+            return created;
         } catch (NoClassDefFoundError | NoSuchMethodError e) {
-            System.err.println("VertexAI 생성자를 찾을 수 없습니다. SDK 버전을 확인하거나 종속성을 확인하세요.");
+            closeFailed(client, e);
+            log.error("VertexAI 생성자를 찾을 수 없습니다. SDK 버전을 확인하거나 종속성을 확인하세요.", e);
             throw new IOException("VertexAI 초기화 오류: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            closeFailed(client, e);
+            throw e;
+        }
+    }
+
+    // 실패하면 다음 호출에서 클라이언트를 새로 만들므로, 이번 클라이언트는 닫아야 gRPC 채널이 남지 않습니다.
+    private static void closeFailed(VertexAI client, Throwable failure) {
+        if (client == null) {
+            return;
+        }
+        try {
+            client.close();
+        } catch (Exception closeFailure) {
+            failure.addSuppressed(closeFailure);
         }
     }
 
@@ -91,119 +192,194 @@ public class GeminiClient {
                 .addParts(Part.newBuilder().setText(userPrompt).build())
                 .setRole("user")
                 .build();
+        int turnStart = currentHistory.size();
         currentHistory.add(userContent); // 사용자 질문을 기록에 추가
 
-        // Mono를 반환하여 비동기 처리
-        // Gemini API 호출은 네트워크 IO이므로, blocking 호출이 허용되는 스레드에서 실행되도록 fromCallable + publishOn을 사용합니다.
-        return Mono.fromCallable(() -> model.generateContent(new ArrayList<>(currentHistory))) // history 복사본 전달
-                .publishOn(Schedulers.boundedElastic()) // Gemini API 호출을 blocking 가능한 스레드로 전환
-                .flatMap(response -> {
-                    Content modelContent = response.getCandidates(0).getContent();
-                    String modelResponseText = ResponseHandler.getText(response); // 기본 응답 텍스트
-
-                    // 모델 응답을 history에 추가 (Function Call이 있는 경우와 없는 경우 모두)
-                    currentHistory.add(modelContent); // 모델 응답 (함수 호출 포함 가능)을 기록에 추가
-
-                    if (modelContent.getPartsCount() > 0 && modelContent.getParts(0).hasFunctionCall()) {
-                        String functionName = modelContent.getParts(0).getFunctionCall().getName();
-
-                        if ("search_places".equals(functionName)) {
-                            Struct functionArgs = modelContent.getParts(0).getFunctionCall().getArgs();
-
-                            final String extractedQuery;
-                            if (functionArgs.getFieldsMap().containsKey("query")) {
-                                Value queryValue = functionArgs.getFieldsMap().get("query");
-                                if (queryValue.hasStringValue()) {
-                                    extractedQuery = queryValue.getStringValue();
-                                } else {
-                                    extractedQuery = null;
-                                }
-                            } else {
-                                extractedQuery = null;
-                            }
-
-                            if (extractedQuery == null || extractedQuery.isEmpty()) {
-                                // Gemini가 검색 쿼리를 제대로 생성하지 못하면, 해당 오류 메시지를 history에 추가하고 반환
-                                // 이 경우는 모델이 오류를 이해하고 답변하도록 하지 않고, 직접 오류 반환
-                                // currentHistory.remove(currentHistory.size() - 1); // 잘못된 modelContent 제거
-                                return Mono.just("Gemini가 검색 쿼리를 제대로 생성하지 못했습니다. 질문을 명확히 해주세요.");
-                            }
-
-                            System.out.println("Gemini가 카카오맵 검색을 제안했습니다. 검색 쿼리: " + extractedQuery);
-
-                            return kakaoMapClient.searchPlace(extractedQuery) // extractedQuery 사용
-                                    .flatMap(places -> {
-                                        Struct.Builder responseStructBuilder = Struct.newBuilder();
-
-                                        if (places == null || places.isEmpty()) {
-                                            responseStructBuilder.putFields("status", Value.newBuilder().setStringValue("No results").build());
-                                            responseStructBuilder.putFields("message", Value.newBuilder().setStringValue("No places found for query: " + extractedQuery).build());
-                                        } else {
-                                            List<Value> placeValueList = new java.util.ArrayList<>();
-                                            for (Map<String, String> place : places) {
-                                                Struct.Builder placeStructBuilder = Struct.newBuilder();
-                                                place.forEach((key, val) -> placeStructBuilder.putFields(key, Value.newBuilder().setStringValue(val).build()));
-                                                placeValueList.add(Value.newBuilder().setStructValue(placeStructBuilder.build()).build());
-                                            }
-                                            responseStructBuilder.putFields("places", Value.newBuilder().setListValue(ListValue.newBuilder().addAllValues(placeValueList).build()).build());
-                                            responseStructBuilder.putFields("status", Value.newBuilder().setStringValue("success").build());
-                                        }
-                                        Struct toolOutputStruct = responseStructBuilder.build();
-
-                                        // FunctionResponse Content를 생성하고 history에 추가
-                                        // FunctionResponse를 담는 Content의 role은 'user'여야 합니다.
-                                        Content toolResponseContent = Content.newBuilder()
-                                                .addParts(Part.newBuilder()
-                                                        .setFunctionResponse(
-                                                                FunctionResponse.newBuilder()
-                                                                        .setName(functionName)
-                                                                        .setResponse(toolOutputStruct)
-                                                                        .build())
-                                                        .build())
-                                                .setRole("user") // <<-- 이 부분이 중요합니다: 'user' 역할
-                                                .build();
-                                        currentHistory.add(toolResponseContent);
-
-                                        // 도구 결과와 함께 대화 기록을 다시 모델에 전달하여 최종 응답 생성
-                                        return Mono.fromCallable(() -> model.generateContent(new ArrayList<>(currentHistory)))
-                                                .publishOn(Schedulers.boundedElastic())
-                                                .map(finalModelResponse -> {
-                                                    String finalModelResponseText = ResponseHandler.getText(finalModelResponse);
-                                                    Content finalModelContent = Content.newBuilder()
-                                                            .addParts(Part.newBuilder().setText(finalModelResponseText).build())
-                                                            .setRole("model")
-                                                            .build();
-                                                    currentHistory.add(finalModelContent);
-                                                    return finalModelResponseText;
-                                                })
-                                                .onErrorResume(e -> {
-                                                    System.err.println("Error generating final content after tool call: " + e.getMessage());
-                                                    return Mono.just("Gemini API 최종 응답 생성 중 오류가 발생했습니다: " + e.getMessage());
-                                                });
-                                    })
-                                    .onErrorResume(e -> {
-                                        System.err.println("Error calling KakaoMapClient: " + e.getMessage());
-                                        return Mono.just("카카오맵 검색 중 오류가 발생했습니다: " + e.getMessage());
-                                    });
-
-                        } else {
-                            return Mono.just("Gemini가 알 수 없는 함수를 호출하려 했습니다: " + functionName);
-                        }
-                    } else {
-                        // Function Call이 없는 경우, 이미 modelContent가 history에 추가되었으므로 여기서 추가 작업 없음
-                        return Mono.just(modelResponseText);
+        // 모델이 도구를 더 부르지 않을 때까지 호출 -> 도구 실행 -> 재호출을 반복합니다.
+        return toolCallLoop(kakaoMapClient).run(currentHistory)
+                .doOnError(e -> rollback(currentHistory, turnStart))
+                .onErrorResume(e -> !(e instanceof UpstreamOverloadedException), e -> {
+                    System.err.println("Error in Gemini API call: " + e.getMessage());
+                    return Mono.just("Gemini API 호출 중 오류가 발생했습니다: " + e.getMessage());
+                });
+    }
+
+    /**
+     * 답변을 토큰 단위로 흘려보내는 스트리밍 버전.
+     * 모든 모델 호출을 스트리밍 API로 하고, 텍스트 조각은 도착하는 대로 내보내며
+     * 함수 호출이 섞인 응답은 도구를 실행한 뒤 다음 라운드를 이어 붙입니다.
+     */
+    public Flux<String> streamGeminiResponse(String userPrompt, KakaoMapClient kakaoMapClient, List<Content> currentHistory) {
+        Content userContent = Content.newBuilder()
+                .addParts(Part.newBuilder().setText(userPrompt).build())
+                .setRole("user")
+                .build();
+        int turnStart = currentHistory.size();
+        currentHistory.add(userContent);
+
+        return toolCallLoop(kakaoMapClient).stream(currentHistory)
+                .doOnError(e -> rollback(currentHistory, turnStart))
+                // 오류를 답변 토큰처럼 흘려보내지 않고 그대로 전달합니다. 컨트롤러가 SSE error 이벤트로 바꿉니다.
+                .doOnError(e -> !(e instanceof UpstreamOverloadedException),
+                        e -> log.error("Error in streaming Gemini API call", e));
+    }
+
+    // 실패한 턴의 질문과 중간 도구 라운드를 기록에서 지웁니다. 남겨 두면 다음 턴에 user 차례가 연달아 갑니다.
+    private static void rollback(List<Content> history, int turnStart) {
+        history.subList(turnStart, history.size()).clear();
+    }
+
+    private ToolCallLoop toolCallLoop(KakaoMapClient kakaoMapClient) {
+        ToolCallLoop.Model toolModel = new ToolCallLoop.Model() {
+            @Override
+            public Mono<GenerateContentResponse> generate(List<Content> history, boolean allowTools) {
+                return GeminiClient.this.generate(history, allowTools);
+            }
+
+            @Override
+            public Flux<GenerateContentResponse> stream(List<Content> history, boolean allowTools) {
+                return generateStream(history, allowTools);
+            }
+        };
+        return new ToolCallLoop(toolModel, call -> executeTool(call, kakaoMapClient), maxToolSteps, toolTimeBudget, maxParallelTools);
+    }
+
+    // 도구 실패는 오류 응답으로 모델에 돌려주어 다른 검색을 시도하거나 그대로 답하게 합니다.
+    // 과부하(UpstreamOverloadedException)만 그대로 올려 503으로 응답합니다.
+    private Mono<Part> executeTool(FunctionCall call, KakaoMapClient kakaoMapClient) {
+        String functionName = call.getName();
+        upstreamMetrics.toolCall(functionName);
+        if (!"search_places".equals(functionName)) {
+            return Mono.just(toToolErrorPart(functionName, "Unknown function: " + functionName));
+        }
+        String query = extractQuery(call.getArgs());
+        if (query == null || query.isEmpty()) {
+            return Mono.just(toToolErrorPart(functionName, "Missing required argument: query"));
+        }
+        System.out.println("Gemini가 카카오맵 검색을 제안했습니다. 검색 쿼리: " + query);
+        return kakaoMapClient.searchPlace(query)
+                .map(places -> toToolResponsePart(functionName, query, places))
+                .onErrorResume(e -> !(e instanceof UpstreamOverloadedException), e -> {
+                    System.err.println("Error calling KakaoMapClient: " + e.getMessage());
+                    return Mono.just(toToolErrorPart(functionName, "Place search failed: " + e.getMessage()));
+                });
+    }
+
+    // 도구 라운드마다 generateContent 한 번의 지연 시간을 gemini.generate 타이머로 기록합니다.
+    // 대기열에서 토큰을 받으면 제한기 타이머(parallel) 스레드에서 이어지므로,
+    // 블로킹 SDK 호출은 제한기 안쪽에서 subscribeOn으로 blockingScheduler에 넘깁니다.
+    private Mono<GenerateContentResponse> generate(List<Content> history, boolean allowTools) {
+        return models.flatMap(ready -> generate(ready.select(allowTools), history));
+    }
+
+    Mono<GenerateContentResponse> generate(GenerativeModel target, List<Content> history) {
+        Mono<GenerateContentResponse> call = Mono.fromCallable(() -> target.generateContent(new ArrayList<>(history)))
+                .subscribeOn(blockingScheduler);
+        return vertexAiLimiter.limit(upstreamMetrics.timed("gemini.generate", call, "mode", "unary"))
+                .doOnNext(response -> recordUsage(response.getUsageMetadata(), "unary"));
+    }
+
+    private Flux<GenerateContentResponse> generateStream(List<Content> history, boolean allowTools) {
+        return models.flatMapMany(ready -> generateStream(ready.select(allowTools), history));
+    }
+
+    // ResponseStream은 다음 조각을 기다리며 블로킹하므로 구독과 request 모두 blockingScheduler에서 처리합니다.
+    Flux<GenerateContentResponse> generateStream(GenerativeModel target, List<Content> history) {
+        Flux<GenerateContentResponse> chunks = Flux.defer(() -> {
+            try {
+                return Flux.fromIterable(target.generateContentStream(new ArrayList<>(history)));
+            } catch (IOException e) {
+                return Flux.error(e);
+            }
+        }).subscribeOn(blockingScheduler);
+        // 토큰 사용량은 마지막 조각에 누적값으로 실려 오므로 완료 시점에 한 번만 기록합니다.
+        AtomicReference<GenerateContentResponse.UsageMetadata> usage = new AtomicReference<>();
+        return vertexAiLimiter.acquire()
+                .thenMany(upstreamMetrics.timed("gemini.generate", chunks, "mode", "stream"))
+                .doOnNext(chunk -> {
+                    if (chunk.hasUsageMetadata()) {
+                        usage.set(chunk.getUsageMetadata());
                     }
                 })
-                .onErrorResume(e -> {
-                    System.err.println("Error in initial Gemini API call: " + e.getMessage());
-                    return Mono.just("Gemini API 초기 호출 중 오류가 발생했습니다: " + e.getMessage());
+                .doOnComplete(() -> {
+                    if (usage.get() != null) {
+                        recordUsage(usage.get(), "stream");
+                    }
                 });
     }
 
+    // cached는 prompt 중 Vertex AI가 캐시에서 읽은 토큰 수입니다. 접두사가 고정된 덕을 보는지 여기서 확인합니다.
+    private void recordUsage(GenerateContentResponse.UsageMetadata usage, String mode) {
+        upstreamMetrics.geminiTokens(mode, usage.getPromptTokenCount(), usage.getCachedContentTokenCount(), usage.getCandidatesTokenCount());
+    }
+
+    private static String extractQuery(Struct functionArgs) {
+        if (functionArgs.getFieldsMap().containsKey("query")) {
+            Value queryValue = functionArgs.getFieldsMap().get("query");
+            if (queryValue.hasStringValue()) {
+                return queryValue.getStringValue();
+            }
+        }
+        return null;
+    }
+
+    // 카카오 검색 결과를 Gemini에 돌려줄 FunctionResponse Content로 변환합니다.
+    static Content toToolResponseContent(String functionName, String query, List<Map<String, String>> places) {
+        return Content.newBuilder()
+                .addParts(toToolResponsePart(functionName, query, places))
+                .setRole("user") // <<-- 이 부분이 중요합니다: 'user' 역할
+                .build();
+    }
+
+    static Part toToolResponsePart(String functionName, String query, List<Map<String, String>> places) {
+        Struct.Builder responseStructBuilder = Struct.newBuilder();
+
+        if (places == null || places.isEmpty()) {
+            responseStructBuilder.putFields("status", Value.newBuilder().setStringValue("No results").build());
+            responseStructBuilder.putFields("message", Value.newBuilder().setStringValue("No places found for query: " + query).build());
+        } else {
+            List<Value> placeValueList = new java.util.ArrayList<>();
+            for (Map<String, String> place : places) {
+                Struct.Builder placeStructBuilder = Struct.newBuilder();
+                place.forEach((key, val) -> placeStructBuilder.putFields(key, Value.newBuilder().setStringValue(val).build()));
+                placeValueList.add(Value.newBuilder().setStructValue(placeStructBuilder.build()).build());
+            }
+            responseStructBuilder.putFields("places", Value.newBuilder().setListValue(ListValue.newBuilder().addAllValues(placeValueList).build()).build());
+            responseStructBuilder.putFields("status", Value.newBuilder().setStringValue("success").build());
+        }
+        return toFunctionResponsePart(functionName, responseStructBuilder.build());
+    }
+
+    static Part toToolErrorPart(String functionName, String message) {
+        return toFunctionResponsePart(functionName, Struct.newBuilder()
+                .putFields("status", Value.newBuilder().setStringValue("error").build())
+                .putFields("message", Value.newBuilder().setStringValue(message).build())
+                .build());
+    }
+
+    private static Part toFunctionResponsePart(String functionName, Struct toolOutputStruct) {
+        return Part.newBuilder()
+                .setFunctionResponse(
+                        FunctionResponse.newBuilder()
+                                .setName(functionName)
+                                .setResponse(toolOutputStruct)
+                                .build())
+                .build();
+    }
+
     @PreDestroy
     public void cleanup() throws IOException {
-        if (vertexAI != null) {
-            vertexAI.close();
+        VertexAI created = vertexAI;
+        if (created != null) {
+            created.close();
+        }
+    }
+
+    // answerModel: 도구 라운드 예산을 다 쓴 뒤 함수 호출 없이 답하게 할 때 쓰는 모델
+    private record Models(GenerativeModel model, GenerativeModel answerModel) {
+
+        GenerativeModel select(boolean allowTools) {
+            return allowTools ? model : answerModel;
         }
     }
 }
\ No newline at end of file
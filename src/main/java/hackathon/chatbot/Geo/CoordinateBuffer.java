@@ -0,0 +1,44 @@
+package hackathon.chatbot.Geo;
+
+import java.util.Arrays;
+
+/**
+ * 좌표 값을 박싱 없이 모으는 가변 길이 double 버퍼.
+ * 다 모은 뒤 {@link #toGeometry()}로 복사 없이(여유 공간이 크면 한 번 잘라서) 경로 객체를 만듭니다.
+ */
+public final class CoordinateBuffer {
+
+    private double[] values;
+    private int size;
+
+    public CoordinateBuffer() {
+        this(256);
+    }
+
+    public CoordinateBuffer(int initialCapacity) {
+        this.values = new double[Math.max(initialCapacity, 2)];
+    }
+
+    public void add(double value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[size++] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 지금까지 모은 값을 [x, y] 쌍의 경로로 만듭니다. 값 개수가 홀수면 잘못된 응답으로 봅니다.
+     * 캐시에 오래 남을 수 있으므로 남는 공간이 4분의 1을 넘으면 배열을 맞춰 자릅니다.
+     */
+    public RouteGeometry toGeometry() {
+        if (size % 2 != 0) {
+            throw new IllegalStateException("좌표 값 개수가 홀수입니다: " + size);
+        }
+        double[] coordinates = values.length - size > values.length / 4 ? Arrays.copyOf(values, size) : values;
+        return RouteGeometry.wrap(coordinates, size / 2);
+    }
+}
@@ -0,0 +1,72 @@
+package hackathon.chatbot.Geo;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * 경로 좌표를 짧은 문자열로 인코딩합니다.
+ * 좌표 하나에 수십 바이트가 드는 {x, y} JSON 배열 대신 점당 몇 바이트 수준으로 줄어듭니다.
+ */
+public final class GeometryEncoding {
+
+    private static final double POLYLINE_SCALE = 1e5;
+    private static final double DELTA_SCALE = 1e6;
+
+    private GeometryEncoding() {
+    }
+
+    /** Google encoded polyline 알고리즘. 표준 디코더와 호환되도록 (위도, 경도) 순서로 적습니다. */
+    public static String encodePolyline(RouteGeometry geometry) {
+        StringBuilder out = new StringBuilder(geometry.pointCount() * 6);
+        long previousLat = 0;
+        long previousLng = 0;
+        for (int i = 0; i < geometry.pointCount(); i++) {
+            long lat = Math.round(geometry.y(i) * POLYLINE_SCALE);
+            long lng = Math.round(geometry.x(i) * POLYLINE_SCALE);
+            appendPolylineValue(out, lat - previousLat);
+            appendPolylineValue(out, lng - previousLng);
+            previousLat = lat;
+            previousLng = lng;
+        }
+        return out.toString();
+    }
+
+    /** 1e-6도 단위 정수 차분을 zigzag varint로 적고 base64url(패딩 없음)로 인코딩합니다. */
+    public static String encodeDeltaVarint(RouteGeometry geometry) {
+        byte[] buffer = new byte[geometry.pointCount() * 2 * 10];
+        int length = 0;
+        long previousX = 0;
+        long previousY = 0;
+        for (int i = 0; i < geometry.pointCount(); i++) {
+            long x = Math.round(geometry.x(i) * DELTA_SCALE);
+            long y = Math.round(geometry.y(i) * DELTA_SCALE);
+            length = writeVarint(buffer, length, zigzag(x - previousX));
+            length = writeVarint(buffer, length, zigzag(y - previousY));
+            previousX = x;
+            previousY = y;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(buffer, length));
+    }
+
+    private static void appendPolylineValue(StringBuilder out, long value) {
+        long shifted = value < 0 ? ~(value << 1) : value << 1;
+        while (shifted >= 0x20) {
+            out.append((char) ((0x20 | (shifted & 0x1f)) + 63));
+            shifted >>= 5;
+        }
+        out.append((char) (shifted + 63));
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int writeVarint(byte[] buffer, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[offset++] = (byte) value;
+        return offset;
+    }
+}
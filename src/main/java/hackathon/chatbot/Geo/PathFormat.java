@@ -0,0 +1,42 @@
+package hackathon.chatbot.Geo;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * 경로 좌표를 응답에 담는 방식.
+ * <ul>
+ *     <li>{@code points}: 기존과 같은 {x, y} 객체 배열 (기본값)</li>
+ *     <li>{@code polyline}: Google encoded polyline (위도, 경도 순서, 소수점 5자리)</li>
+ *     <li>{@code delta}: 1e-6도 단위 정수 차분을 zigzag varint로 적고 base64url로 인코딩한 문자열 (x, y 순서)</li>
+ * </ul>
+ */
+public enum PathFormat {
+    POINTS,
+    POLYLINE,
+    DELTA;
+
+    @JsonCreator
+    public static PathFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return POINTS;
+        }
+        return PathFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    @JsonValue
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /** POINTS가 아닌 형식으로 경로를 문자열 인코딩합니다. */
+    public String encode(RouteGeometry geometry) {
+        return switch (this) {
+            case POLYLINE -> GeometryEncoding.encodePolyline(geometry);
+            case DELTA -> GeometryEncoding.encodeDeltaVarint(geometry);
+            case POINTS -> throw new IllegalStateException("points 형식은 문자열로 인코딩하지 않습니다");
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package hackathon.chatbot.Geo;
+
+/**
+ * 응답 경로를 어떻게 만들지에 대한 요청 옵션.
+ * tolerance(m)가 있으면 그 값으로, 없고 zoom이 있으면 그 줌의 1픽셀 크기로 경로를 단순화합니다.
+ */
+public record PathOptions(PathFormat format, Double tolerance, Double zoom) {
+
+    public static final PathOptions DEFAULT = new PathOptions(PathFormat.POINTS, null, null);
+
+    public PathOptions {
+        format = format == null ? PathFormat.POINTS : format;
+        if (tolerance != null && tolerance < 0) {
+            throw new IllegalArgumentException("tolerance는 0 이상이어야 합니다");
+        }
+        if (zoom != null && (zoom < 0 || zoom > 24)) {
+            throw new IllegalArgumentException("zoom은 0에서 24 사이여야 합니다");
+        }
+    }
+
+    public boolean simplifies() {
+        return tolerance != null || zoom != null;
+    }
+
+    public RouteGeometry simplify(RouteGeometry geometry) {
+        if (!simplifies() || geometry.pointCount() <= 2) {
+            return geometry;
+        }
+        double toleranceMeters = tolerance != null
+                ? tolerance
+                : PathSimplifier.toleranceForZoom(zoom, geometry.y(0));
+        return PathSimplifier.simplify(geometry, toleranceMeters);
+    }
+}
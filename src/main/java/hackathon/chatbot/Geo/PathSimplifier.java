@@ -0,0 +1,102 @@
+package hackathon.chatbot.Geo;
+
+import java.util.Arrays;
+
+/**
+ * Douglas-Peucker 경로 단순화.
+ * 좌표를 첫 점 위도 기준의 평면(미터 단위)으로 펴서 허용 오차보다 가까운 중간 점을 버립니다.
+ * 재귀 대신 원시 배열 스택을 써서 수천 개 점의 경로도 추가 객체 없이 처리합니다.
+ */
+public final class PathSimplifier {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    // 웹 메르카토르 줌 0에서 적도 기준 1픽셀이 차지하는 거리(m)
+    private static final double METERS_PER_PIXEL_AT_ZOOM_0 = 156_543.03392;
+
+    private PathSimplifier() {
+    }
+
+    /**
+     * 웹 메르카토르 줌 레벨에서 화면 1픽셀에 해당하는 거리(m)를 허용 오차로 씁니다.
+     * 그보다 작은 굴곡은 화면에 보이지 않으므로 버려도 모양이 달라지지 않습니다.
+     */
+    public static double toleranceForZoom(double zoom, double latitude) {
+        return METERS_PER_PIXEL_AT_ZOOM_0 * Math.cos(Math.toRadians(latitude)) / Math.pow(2, zoom);
+    }
+
+    public static RouteGeometry simplify(RouteGeometry geometry, double toleranceMeters) {
+        int n = geometry.pointCount();
+        if (n <= 2 || toleranceMeters <= 0) {
+            return geometry;
+        }
+        double cosLat = Math.cos(Math.toRadians(geometry.y(0)));
+        double[] px = new double[n];
+        double[] py = new double[n];
+        for (int i = 0; i < n; i++) {
+            px[i] = geometry.x(i) * METERS_PER_DEGREE * cosLat;
+            py[i] = geometry.y(i) * METERS_PER_DEGREE;
+        }
+
+        boolean[] keep = new boolean[n];
+        keep[0] = true;
+        keep[n - 1] = true;
+        double toleranceSquared = toleranceMeters * toleranceMeters;
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = n - 1;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            double maxDistance = -1;
+            int farthest = -1;
+            for (int i = first + 1; i < last; i++) {
+                double d = segmentDistanceSquared(px[i], py[i], px[first], py[first], px[last], py[last]);
+                if (d > maxDistance) {
+                    maxDistance = d;
+                    farthest = i;
+                }
+            }
+            if (farthest >= 0 && maxDistance > toleranceSquared) {
+                keep[farthest] = true;
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = first;
+                stack[top++] = farthest;
+                stack[top++] = farthest;
+                stack[top++] = last;
+            }
+        }
+
+        int kept = 0;
+        for (boolean k : keep) {
+            if (k) {
+                kept++;
+            }
+        }
+        if (kept == n) {
+            return geometry;
+        }
+        double[] out = new double[kept * 2];
+        int j = 0;
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) {
+                out[j++] = geometry.x(i);
+                out[j++] = geometry.y(i);
+            }
+        }
+        return RouteGeometry.wrap(out, kept);
+    }
+
+    private static double segmentDistanceSquared(double x, double y, double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : ((x - ax) * dx + (y - ay) * dy) / lengthSquared;
+        t = Math.max(0, Math.min(1, t));
+        double ex = x - (ax + t * dx);
+        double ey = y - (ay + t * dy);
+        return ex * ex + ey * ey;
+    }
+}
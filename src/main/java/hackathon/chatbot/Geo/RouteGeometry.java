@@ -0,0 +1,90 @@
+package hackathon.chatbot.Geo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 경로 좌표를 [x0, y0, x1, y1, ...] 원시 배열 하나로 들고 있는 불변 객체.
+ * 좌표마다 Point 객체와 박싱된 Double을 만들지 않아 긴 경로에서도 힙 사용량이 작습니다.
+ * x는 경도, y는 위도입니다.
+ */
+public final class RouteGeometry {
+
+    private static final RouteGeometry EMPTY = new RouteGeometry(new double[0], 0);
+
+    private final double[] coordinates;
+    private final int pointCount;
+
+    private RouteGeometry(double[] coordinates, int pointCount) {
+        this.coordinates = coordinates;
+        this.pointCount = pointCount;
+    }
+
+    public static RouteGeometry empty() {
+        return EMPTY;
+    }
+
+    /** 넘겨받은 배열을 복사하지 않고 그대로 감쌉니다. 호출한 쪽은 이후 배열을 수정하면 안 됩니다. */
+    public static RouteGeometry wrap(double[] coordinates, int pointCount) {
+        if (pointCount * 2 > coordinates.length) {
+            throw new IllegalArgumentException("좌표 배열 길이가 점 개수보다 짧습니다");
+        }
+        return pointCount == 0 ? EMPTY : new RouteGeometry(coordinates, pointCount);
+    }
+
+    public static RouteGeometry of(double[] coordinates) {
+        if (coordinates.length % 2 != 0) {
+            throw new IllegalArgumentException("좌표 배열 길이는 짝수여야 합니다");
+        }
+        return wrap(coordinates, coordinates.length / 2);
+    }
+
+    /** 여러 구간을 이어 붙입니다. 앞 구간의 끝점과 다음 구간의 시작점이 같으면 한 번만 넣습니다. */
+    public static RouteGeometry concat(List<RouteGeometry> parts) {
+        int total = 0;
+        for (RouteGeometry part : parts) {
+            total += part.pointCount;
+        }
+        double[] merged = new double[total * 2];
+        int count = 0;
+        for (RouteGeometry part : parts) {
+            for (int i = 0; i < part.pointCount; i++) {
+                double x = part.x(i);
+                double y = part.y(i);
+                if (i == 0 && count > 0 && merged[(count - 1) * 2] == x && merged[(count - 1) * 2 + 1] == y) {
+                    continue;
+                }
+                merged[count * 2] = x;
+                merged[count * 2 + 1] = y;
+                count++;
+            }
+        }
+        return wrap(merged, count);
+    }
+
+    public int pointCount() {
+        return pointCount;
+    }
+
+    public double x(int index) {
+        return coordinates[index * 2];
+    }
+
+    public double y(int index) {
+        return coordinates[index * 2 + 1];
+    }
+
+    /** 응답 DTO의 Point 목록이 필요할 때만 객체로 풀어냅니다. */
+    public <P> List<P> toPoints(PointMapper<P> mapper) {
+        List<P> points = new ArrayList<>(pointCount);
+        for (int i = 0; i < pointCount; i++) {
+            points.add(mapper.map(x(i), y(i)));
+        }
+        return points;
+    }
+
+    @FunctionalInterface
+    public interface PointMapper<P> {
+        P map(double x, double y);
+    }
+}
@@ -0,0 +1,140 @@
+package hackathon.chatbot;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import hackathon.chatbot.Dto.DirectionsLeg;
+import hackathon.chatbot.Geo.CoordinateBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 카카오 길찾기(/v1/directions) 응답을 토큰 단위로 읽는 논블로킹 파서.
+ * 응답 바이트가 도착하는 대로 {@link #feed(ByteBuffer)}로 넘기면 바로 파싱하고,
+ * 중간 객체 트리를 만들지 않고 첫 번째 경로의 요약 값과 모든 구간(section)의 좌표만 뽑아냅니다.
+ *
+ * <p>한 인스턴스는 응답 하나에만 쓰며 스레드 안전하지 않습니다.
+ */
+public final class KakaoDirectionsParser {
+
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+    private final CoordinateBuffer vertexes = new CoordinateBuffer();
+
+    private int vertexArrayDepth = -1;
+    private boolean hasSummary;
+    private int duration;
+    private int distance;
+    private int resultCode;
+    private String resultMessage;
+
+    public KakaoDirectionsParser(JsonFactory jsonFactory) {
+        try {
+            this.parser = jsonFactory.createNonBlockingByteBufferParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("JSON 파서를 만들 수 없습니다", e);
+        }
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /** 한 번에 받은 응답 전체를 파싱합니다. */
+    public static DirectionsLeg parse(JsonFactory jsonFactory, byte[] body) {
+        KakaoDirectionsParser directionsParser = new KakaoDirectionsParser(jsonFactory);
+        directionsParser.feed(ByteBuffer.wrap(body));
+        return directionsParser.finish();
+    }
+
+    /** 응답 조각을 넘깁니다. 조각은 이 메서드 안에서 모두 소비되므로 반환 후 해제해도 됩니다. */
+    public void feed(ByteBuffer chunk) {
+        try {
+            feeder.feedInput(chunk);
+            drain();
+        } catch (IOException e) {
+            throw new IllegalStateException("카카오 길찾기 응답을 해석할 수 없습니다", e);
+        }
+    }
+
+    public DirectionsLeg finish() {
+        try {
+            feeder.endOfInput();
+            drain();
+            parser.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("카카오 길찾기 응답을 해석할 수 없습니다", e);
+        }
+        if (resultCode != 0 || !hasSummary) {
+            throw new IllegalStateException("카카오 길찾기 결과에 경로가 없습니다: "
+                    + (resultMessage != null ? resultMessage : "result_code=" + resultCode));
+        }
+        return new DirectionsLeg(duration, distance, vertexes.toGeometry());
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (vertexArrayDepth >= 0) {
+                // 가장 많이 지나가는 구간: 좌표 배열 안에서는 숫자만 바로 버퍼에 넣습니다.
+                if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+                    vertexes.add(parser.getDoubleValue());
+                } else if (token == JsonToken.END_ARRAY && parser.getParsingContext().getNestingDepth() < vertexArrayDepth) {
+                    vertexArrayDepth = -1;
+                }
+                continue;
+            }
+            switch (token) {
+                case START_ARRAY -> {
+                    JsonStreamContext array = parser.getParsingContext();
+                    if ("vertexes".equals(array.getParent().getCurrentName()) && isInFirstRoute(array)) {
+                        vertexArrayDepth = array.getNestingDepth();
+                    }
+                }
+                case VALUE_NUMBER_INT -> readNumber();
+                case VALUE_STRING -> {
+                    JsonStreamContext context = parser.getParsingContext();
+                    if ("result_msg".equals(context.getCurrentName()) && isFirstRoute(context)) {
+                        resultMessage = parser.getText();
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    private void readNumber() throws IOException {
+        JsonStreamContext context = parser.getParsingContext();
+        String name = context.getCurrentName();
+        if ("result_code".equals(name) && isFirstRoute(context)) {
+            resultCode = parser.getIntValue();
+        } else if (("duration".equals(name) || "distance".equals(name))
+                && "summary".equals(context.getParent().getCurrentName())
+                && isFirstRoute(context.getParent())) {
+            hasSummary = true;
+            if ("duration".equals(name)) {
+                duration = parser.getIntValue();
+            } else {
+                distance = parser.getIntValue();
+            }
+        }
+    }
+
+    // routes 배열의 첫 번째 원소(경로 객체) 컨텍스트인지 확인합니다.
+    private static boolean isFirstRoute(JsonStreamContext context) {
+        JsonStreamContext routes = context.getParent();
+        return context.inObject()
+                && routes != null && routes.inArray() && routes.getCurrentIndex() == 0
+                && routes.getParent() != null && "routes".equals(routes.getParent().getCurrentName());
+    }
+
+    private static boolean isInFirstRoute(JsonStreamContext context) {
+        for (JsonStreamContext c = context; c != null; c = c.getParent()) {
+            if (isFirstRoute(c)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,9 +2,17 @@ package hackathon.chatbot;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import hackathon.chatbot.Cache.PlaceSearchCache;
+import hackathon.chatbot.Metrics.UpstreamMetrics;
+import hackathon.chatbot.Poi.PoiIndex;
+import hackathon.chatbot.Resilience.UpstreamGuard;
+import hackathon.chatbot.Resilience.UpstreamOverloadedException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpHeaders;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 
@@ -18,15 +26,32 @@ import java.util.Map;
 @Component
 public class KakaoMapClient {
 
+    // 카카오와 로컬 색인 모두 최대 5개의 검색 결과를 돌려줍니다.
+    private static final int SEARCH_SIZE = 5;
+
     private final ObjectMapper objectMapper;
     // @Value("${kakao.api-key}") // application.properties에서 읽지 않으므로 주석 처리
     private String kakaoApiKey; // 필드 선언 유지
 
     private final WebClient webClient;
+    private final PlaceSearchCache placeSearchCache;
+    private final UpstreamMetrics upstreamMetrics;
+    private final UpstreamGuard searchGuard;
+    private final PoiIndex poiIndex;
 
-    public KakaoMapClient(WebClient.Builder webClientBuilder, ObjectMapper objectMapper, @Value("${kakao.api-key}") String kakaoApiKey) {
+    public KakaoMapClient(WebClient.Builder webClientBuilder, ReactorClientHttpConnector kakaoClientHttpConnector,
+                          PlaceSearchCache placeSearchCache, UpstreamMetrics upstreamMetrics,
+                          @Qualifier("kakaoSearchGuard") UpstreamGuard searchGuard, ObjectProvider<PoiIndex> poiIndex,
+                          ObjectMapper objectMapper, @Value("${kakao.api-key}") String kakaoApiKey) {
         this.kakaoApiKey = kakaoApiKey;
-        this.webClient = webClientBuilder.baseUrl("https://dapi.kakao.com/v2/local")
+        this.poiIndex = poiIndex.getIfAvailable();
+        this.placeSearchCache = placeSearchCache;
+        this.upstreamMetrics = upstreamMetrics;
+        this.searchGuard = searchGuard;
+        // 길찾기 클라이언트와 같은 커넥션 풀을 공유합니다.
+        this.webClient = webClientBuilder.clone()
+                .clientConnector(kakaoClientHttpConnector)
+                .baseUrl("https://dapi.kakao.com/v2/local")
                 .defaultHeader(HttpHeaders.AUTHORIZATION, "KakaoAK " + this.kakaoApiKey)
                 .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
                 .build();
@@ -35,41 +60,60 @@ public class KakaoMapClient {
 
     // 반환 타입을 Mono<List<Map<String, String>>>으로 변경하고, .block() 제거
     public Mono<List<Map<String, String>>> searchPlace(String query) {
-        return webClient.get()
+        // 로컬 장소 색인이 있으면 먼저 찾아보고, 찾지 못했을 때만 카카오로 넘깁니다.
+        if (poiIndex != null) {
+            return Mono.fromSupplier(() -> poiIndex.search(query, SEARCH_SIZE))
+                    .flatMap(places -> places.isEmpty() ? searchKakao(query) : Mono.just(places));
+        }
+        return searchKakao(query);
+    }
+
+    private Mono<List<Map<String, String>>> searchKakao(String query) {
+        // 같은 검색어는 캐시된 결과를 쓰고, 동시에 들어온 같은 검색은 하나의 요청을 공유합니다.
+        // 캐시에 없을 때만 마감 시간/서킷 브레이커/벌크헤드/헤지 요청을 거쳐 카카오를 부릅니다.
+        return placeSearchCache.get(query, q -> searchGuard.execute(() -> fetchPlaces(q)))
+                .onErrorResume(e -> !(e instanceof UpstreamOverloadedException), e -> { // WebClient 호출 자체의 오류 처리
+                    System.err.println("KakaoMapClient WebClient call error: " + e.getMessage());
+                    return Mono.just(new ArrayList<>()); // 오류 발생 시 빈 리스트 Mono 반환
+                });
+    }
+
+    private Mono<List<Map<String, String>>> fetchPlaces(String query) {
+        Mono<String> call = webClient.get()
                 .uri(uriBuilder -> uriBuilder.path("/search/keyword.json")
                         .queryParam("query", query)
-                        .queryParam("size", 5) // 최대 5개의 검색 결과 요청
+                        .queryParam("size", SEARCH_SIZE) // 최대 5개의 검색 결과 요청
                         .build())
                 .retrieve()
-                .bodyToMono(String.class) // Mono<String> 반환
-                .map(jsonResponse -> { // Mono<String>을 Mono<List<Map<String, String>>>로 변환
-                    List<Map<String, String>> places = new ArrayList<>();
-                    if (jsonResponse != null) {
-                        try {
-                            JsonNode root = objectMapper.readTree(jsonResponse);
-                            JsonNode documents = root.path("documents");
-                            if (documents.isArray()) {
-                                for (JsonNode placeNode : documents) {
-                                    Map<String, String> placeInfo = new HashMap<>();
-                                    placeInfo.put("place_name", placeNode.path("place_name").asText());
-                                    placeInfo.put("address_name", placeNode.path("address_name").asText());
-                                    placeInfo.put("category_name", placeNode.path("category_name").asText());
-                                    placeInfo.put("phone", placeNode.path("phone").asText("정보 없음"));
-                                    placeInfo.put("place_url", placeNode.path("place_url").asText("정보 없음"));
-                                    places.add(placeInfo);
-                                }
-                            }
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                            // 에러 발생 시 빈 리스트 반환 (Mono.empty() 또는 Mono.error() 고려)
-                        }
+                .bodyToMono(String.class); // Mono<String> 반환
+        return upstreamMetrics.timed("kakao.search", call)
+                .map(jsonResponse -> parsePlaces(objectMapper, jsonResponse)) // Mono<String>을 Mono<List<Map<String, String>>>로 변환
+                .defaultIfEmpty(new ArrayList<>()); // 응답이 비어있으면 빈 리스트 반환
+    }
+
+    // 키워드 검색 응답에서 Gemini에 넘길 필드만 꺼냅니다. 파싱에 실패하면 빈 리스트를 돌려줍니다.
+    static List<Map<String, String>> parsePlaces(ObjectMapper objectMapper, String jsonResponse) {
+        List<Map<String, String>> places = new ArrayList<>();
+        if (jsonResponse != null) {
+            try {
+                JsonNode root = objectMapper.readTree(jsonResponse);
+                JsonNode documents = root.path("documents");
+                if (documents.isArray()) {
+                    for (JsonNode placeNode : documents) {
+                        Map<String, String> placeInfo = new HashMap<>();
+                        placeInfo.put("place_name", placeNode.path("place_name").asText());
+                        placeInfo.put("address_name", placeNode.path("address_name").asText());
+                        placeInfo.put("category_name", placeNode.path("category_name").asText());
+                        placeInfo.put("phone", placeNode.path("phone").asText("정보 없음"));
+                        placeInfo.put("place_url", placeNode.path("place_url").asText("정보 없음"));
+                        places.add(placeInfo);
                     }
-                    return places;
-                })
-                .defaultIfEmpty(new ArrayList<>()) // 응답이 비어있으면 빈 리스트 반환
-                .onErrorResume(e -> { // WebClient 호출 자체의 오류 처리
-                    System.err.println("KakaoMapClient WebClient call error: " + e.getMessage());
-                    return Mono.just(new ArrayList<>()); // 오류 발생 시 빈 리스트 Mono 반환
-                });
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+                // 에러 발생 시 빈 리스트 반환 (Mono.empty() 또는 Mono.error() 고려)
+            }
+        }
+        return places;
     }
 }
\ No newline at end of file
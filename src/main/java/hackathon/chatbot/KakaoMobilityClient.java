@@ -0,0 +1,202 @@
+package hackathon.chatbot;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hackathon.chatbot.Cache.RouteCache;
+import hackathon.chatbot.Cache.RouteStore;
+import hackathon.chatbot.Dto.DirectionsLeg;
+import hackathon.chatbot.Metrics.UpstreamMetrics;
+import hackathon.chatbot.Resilience.TokenBucketLimiter;
+import hackathon.chatbot.Resilience.UpstreamGuard;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 카카오모빌리티 길찾기 API 클라이언트.
+ * 공유 커넥션 풀을 쓰는 WebClient를 한 번만 만들어 두고 모든 길찾기 호출이 재사용합니다.
+ * 격자 단위로 스냅한 출발지/도착지가 같으면 {@link RouteCache}에 있는 결과를 그대로 돌려줍니다.
+ * {@link RouteStore}가 설정돼 있으면 힙 캐시에 없을 때 파일 저장소를 보고, 찾으면 힙 캐시에도 올립니다.
+ */
+@Component
+public class KakaoMobilityClient {
+
+    private final WebClient webClient;
+    private final RouteCache routeCache;
+    // null이면 힙 캐시만 씁니다.
+    private final RouteStore routeStore;
+    private final JsonFactory jsonFactory;
+    private final UpstreamMetrics upstreamMetrics;
+    private final UpstreamGuard directionsGuard;
+    private final TokenBucketLimiter mobilityLimiter;
+
+    public KakaoMobilityClient(WebClient.Builder webClientBuilder,
+                               ReactorClientHttpConnector kakaoClientHttpConnector,
+                               RouteCache routeCache,
+                               ObjectProvider<RouteStore> routeStore,
+                               ObjectMapper objectMapper,
+                               UpstreamMetrics upstreamMetrics,
+                               @Qualifier("kakaoDirectionsGuard") UpstreamGuard directionsGuard,
+                               @Qualifier("kakaoMobilityLimiter") TokenBucketLimiter mobilityLimiter,
+                               @Value("${kakao.api.key}") String kakaoApiKey,
+                               @Value("${kakao.mobility.base-url:https://apis-navi.kakaomobility.com}") String baseUrl) {
+        this.routeCache = routeCache;
+        this.routeStore = routeStore.getIfAvailable();
+        this.jsonFactory = objectMapper.getFactory();
+        this.upstreamMetrics = upstreamMetrics;
+        this.directionsGuard = directionsGuard;
+        this.mobilityLimiter = mobilityLimiter;
+        this.webClient = webClientBuilder.clone()
+                .clientConnector(kakaoClientHttpConnector)
+                .baseUrl(baseUrl)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "KakaoAK " + kakaoApiKey)
+                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+    }
+
+    public Mono<DirectionsLeg> getDirections(double startX, double startY, double endX, double endY) {
+        RouteCache.Key key = routeCache.keyOf(startX, startY, endX, endY);
+        return Mono.defer(() -> {
+            DirectionsLeg cached = cached(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            // 마감 시간, 서킷 브레이커, 벌크헤드, 느린 응답에 대한 헤지 요청을 거칩니다.
+            return directionsGuard.execute(() -> fetchDirections(startX, startY, endX, endY))
+                    .doOnNext(leg -> {
+                        routeCache.put(key, leg);
+                        if (routeStore != null) {
+                            routeStore.put(key, leg);
+                        }
+                    });
+        });
+    }
+
+    /** 캐시에 있는 구간만 돌려주고 없으면 null. 외부 호출은 하지 않습니다. */
+    public DirectionsLeg getCached(double startX, double startY, double endX, double endY) {
+        return cached(routeCache.keyOf(startX, startY, endX, endY));
+    }
+
+    private DirectionsLeg cached(RouteCache.Key key) {
+        DirectionsLeg cached = routeCache.get(key);
+        if (cached == null && routeStore != null) {
+            cached = routeStore.get(key);
+            if (cached != null) {
+                routeCache.put(key, cached);
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * 출발지 하나에서 여러 도착지까지의 요약(소요 시간, 거리)을 한 번에 조회합니다(다중 목적지 길찾기).
+     * destinations는 x, y를 번갈아 담은 배열이고, 결과는 도착지 순서대로 [duration, distance]를 번갈아 담습니다.
+     * 길을 찾지 못한 도착지는 -1로 채웁니다.
+     */
+    public Mono<int[]> getDestinationSummaries(double originX, double originY, double[] destinations, int radiusMeters) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("origin", point(originX, originY, null));
+        body.put("destinations", points(destinations));
+        body.put("radius", radiusMeters);
+        body.put("priority", "DISTANCE");
+        return fetchSummaries("/v1/destinations/directions", body, destinations.length / 2);
+    }
+
+    /** 여러 출발지에서 도착지 하나까지의 요약을 한 번에 조회합니다(다중 출발지 길찾기). 결과 형식은 위와 같습니다. */
+    public Mono<int[]> getOriginSummaries(double[] origins, double destinationX, double destinationY, int radiusMeters) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("origins", points(origins));
+        body.put("destination", point(destinationX, destinationY, null));
+        body.put("radius", radiusMeters);
+        body.put("priority", "DISTANCE");
+        return fetchSummaries("/v1/origins/directions", body, origins.length / 2);
+    }
+
+    private Mono<int[]> fetchSummaries(String path, Map<String, Object> body, int count) {
+        Mono<JsonNode> call = webClient.post()
+                .uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(JsonNode.class);
+        // 다중 길찾기도 같은 API 키의 호출 한도를 나눠 씁니다.
+        return mobilityLimiter.limit(upstreamMetrics.timed("kakao.directions.batch", call, "endpoint", path))
+                .map(response -> readSummaries(response, count));
+    }
+
+    // 요청할 때 붙인 key(인덱스)로 결과 위치를 찾습니다. 응답 순서는 요청 순서와 다를 수 있습니다.
+    static int[] readSummaries(JsonNode response, int count) {
+        int[] summaries = new int[count * 2];
+        Arrays.fill(summaries, -1);
+        for (JsonNode route : response.path("routes")) {
+            int index = route.path("key").asInt(-1);
+            if (index < 0 || index >= count || route.path("result_code").asInt(-1) != 0) {
+                continue;
+            }
+            JsonNode summary = route.path("summary");
+            summaries[index * 2] = summary.path("duration").asInt(-1);
+            summaries[index * 2 + 1] = summary.path("distance").asInt(-1);
+        }
+        return summaries;
+    }
+
+    private static List<Map<String, Object>> points(double[] coordinates) {
+        List<Map<String, Object>> points = new ArrayList<>(coordinates.length / 2);
+        for (int i = 0; i < coordinates.length / 2; i++) {
+            points.add(point(coordinates[i * 2], coordinates[i * 2 + 1], String.valueOf(i)));
+        }
+        return points;
+    }
+
+    private static Map<String, Object> point(double x, double y, String key) {
+        Map<String, Object> point = new LinkedHashMap<>();
+        point.put("x", x);
+        point.put("y", y);
+        if (key != null) {
+            point.put("key", key);
+        }
+        return point;
+    }
+
+    private Mono<DirectionsLeg> fetchDirections(double startX, double startY, double endX, double endY) {
+        return Mono.defer(() -> {
+            // 응답 전체를 모으지 않고, 도착한 조각을 바로 파서에 넘긴 뒤 해제합니다.
+            KakaoDirectionsParser parser = new KakaoDirectionsParser(jsonFactory);
+            Mono<DirectionsLeg> call = webClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/v1/directions")
+                            .queryParam("origin", startX + "," + startY)
+                            .queryParam("destination", endX + "," + endY)
+                            .queryParam("priority", "DISTANCE")
+                            .build())
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class)
+                    .doOnNext(buffer -> {
+                        try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                            while (chunks.hasNext()) {
+                                parser.feed(chunks.next());
+                            }
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .then(Mono.fromCallable(parser::finish));
+            return upstreamMetrics.timed("kakao.directions", call);
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package hackathon.chatbot.Metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Schedulers.boundedElastic() 상태 게이지.
+ * 스레드 수/상한/대기 작업 수는 스케줄러의 Scannable 정보로 읽고,
+ * 실행 중인 작업 수는 공개 API가 없어 스케줄 훅으로 boundedElastic 스레드에서 도는 작업을 셉니다.
+ */
+public class BoundedElasticMetrics implements MeterBinder {
+
+    private static final String HOOK_KEY = BoundedElasticMetrics.class.getName();
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Schedulers.onScheduleHook(HOOK_KEY, task -> () -> {
+            if (!Thread.currentThread().getName().startsWith("boundedElastic")) {
+                task.run();
+                return;
+            }
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        });
+
+        Gauge.builder("reactor.bounded_elastic.active", active, AtomicInteger::get)
+                .description("boundedElastic 스레드에서 실행 중인 작업 수")
+                .register(registry);
+        Gauge.builder("reactor.bounded_elastic.threads", this, m -> scan(Scannable.Attr.BUFFERED))
+                .description("살아 있는 boundedElastic 워커 스레드 수")
+                .register(registry);
+        Gauge.builder("reactor.bounded_elastic.max_threads", this, m -> scan(Scannable.Attr.CAPACITY))
+                .register(registry);
+        Gauge.builder("reactor.bounded_elastic.queued", this, m -> queued())
+                .description("워커 큐에서 기다리는 작업 수")
+                .register(registry);
+    }
+
+    private static double scan(Scannable.Attr<Integer> attr) {
+        Integer value = scheduler().scan(attr);
+        return value == null ? Double.NaN : value;
+    }
+
+    private static double queued() {
+        return scheduler().inners()
+                .map(worker -> worker.scan(Scannable.Attr.BUFFERED))
+                .filter(value -> value != null)
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    // boundedElastic()은 실제 스케줄러를 감싼 캐시 래퍼를 돌려주므로 한 겹 벗겨서 봅니다.
+    private static Scannable scheduler() {
+        Scheduler scheduler = Schedulers.boundedElastic();
+        return Scannable.from(scheduler instanceof Supplier<?> cached ? cached.get() : scheduler);
+    }
+}
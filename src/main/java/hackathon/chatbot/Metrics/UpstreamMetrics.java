@@ -0,0 +1,112 @@
+package hackathon.chatbot.Metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 외부 호출(Vertex AI, 카카오) 지연 시간과 요청당 외부 호출 수를 기록합니다.
+ * 외부 호출은 {@link #timed}로 감싸고, 요청 단위 파이프라인은 {@link #fanOut}으로 감싸면
+ * 그 안에서 실제로 나간 외부 호출 수(캐시 적중 제외)가 upstream.fanout 분포로 남습니다.
+ */
+@Component
+public class UpstreamMetrics {
+
+    private static final String FAN_OUT_KEY = UpstreamMetrics.class.getName() + ".fanOut";
+
+    private final MeterRegistry registry;
+
+    public UpstreamMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /** name 타이머에 outcome(success/error/cancel) 태그를 붙여 구독부터 종료까지의 시간을 기록합니다. */
+    public <T> Mono<T> timed(String name, Mono<T> call, String... tags) {
+        return Mono.deferContextual(context -> {
+            context.<AtomicInteger>getOrEmpty(FAN_OUT_KEY).ifPresent(AtomicInteger::incrementAndGet);
+            Timer.Sample sample = Timer.start(registry);
+            return call.doFinally(signal -> sample.stop(timer(name, signal, tags)));
+        });
+    }
+
+    public <T> Flux<T> timed(String name, Flux<T> call, String... tags) {
+        return Flux.deferContextual(context -> {
+            context.<AtomicInteger>getOrEmpty(FAN_OUT_KEY).ifPresent(AtomicInteger::incrementAndGet);
+            Timer.Sample sample = Timer.start(registry);
+            return call.doFinally(signal -> sample.stop(timer(name, signal, tags)));
+        });
+    }
+
+    public <T> Mono<T> fanOut(String operation, Mono<T> pipeline) {
+        return Mono.defer(() -> {
+            AtomicInteger calls = new AtomicInteger();
+            return pipeline
+                    .doFinally(signal -> fanOutSummary(operation).record(calls.get()))
+                    .contextWrite(context -> context.put(FAN_OUT_KEY, calls));
+        });
+    }
+
+    public <T> Flux<T> fanOut(String operation, Flux<T> pipeline) {
+        return Flux.defer(() -> {
+            AtomicInteger calls = new AtomicInteger();
+            return pipeline
+                    .doFinally(signal -> fanOutSummary(operation).record(calls.get()))
+                    .contextWrite(context -> context.put(FAN_OUT_KEY, calls));
+        });
+    }
+
+    /** Gemini가 요청한 도구 호출 수 (함수 이름별) */
+    public void toolCall(String functionName) {
+        Counter.builder("gemini.tool.calls")
+                .tag("function", functionName)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * generateContent 한 번의 토큰 사용량을 gemini.tokens 분포로 기록합니다.
+     * type은 prompt(입력 전체), cached(그중 캐시에서 읽은 입력), candidates(출력)입니다.
+     */
+    public void geminiTokens(String mode, int promptTokens, int cachedTokens, int candidateTokens) {
+        tokenSummary("prompt", mode).record(promptTokens);
+        tokenSummary("cached", mode).record(cachedTokens);
+        tokenSummary("candidates", mode).record(candidateTokens);
+    }
+
+    private Timer timer(String name, SignalType signal, String... tags) {
+        String outcome = switch (signal) {
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancel";
+            default -> "success";
+        };
+        return Timer.builder(name)
+                .tags(tags)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private DistributionSummary fanOutSummary(String operation) {
+        return DistributionSummary.builder("upstream.fanout")
+                .description("요청 하나가 실제로 보낸 외부 호출 수")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private DistributionSummary tokenSummary(String type, String mode) {
+        return DistributionSummary.builder("gemini.tokens")
+                .description("Gemini 호출 한 번의 토큰 수")
+                .tag("type", type)
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,421 @@
+package hackathon.chatbot.Poi;
+
+import hackathon.chatbot.Cache.PlaceSearchCache;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+
+/**
+ * 파일로 만들어 둔 장소(POI) 색인을 메모리 매핑해 search_places를 카카오 호출 없이 처리합니다.
+ * 이름/분류/주소를 단어 안의 두 글자 조각(bigram)으로 색인한 역색인과, 좌표 격자별 장소 목록을 함께 둡니다.
+ * "강남역 중식당"처럼 전체 단어가 한 장소에 다 들어 있지 않으면, 이름이 단어와 같은 장소(강남역)를 기준점으로
+ * 삼아 반경 안에서 나머지 단어가 맞는 장소를 가까운 순으로 찾습니다.
+ * 찾지 못하면 빈 리스트를 돌려주므로 호출하는 쪽에서 카카오로 넘깁니다.
+ *
+ * 파일 구조(리틀 엔디언, {@link PoiIndexBuilder}가 씁니다):
+ * 헤더 | 장소 레코드(x, y, 문자열 위치) | bigram 표(키, 위치, 개수) | 격자 표(키, 위치, 개수) | 게시 목록(int) | 문자열
+ * 모든 조회는 위치 지정 읽기만 하므로 여러 스레드가 같은 버퍼를 함께 씁니다.
+ */
+public final class PoiIndex {
+
+    static final int MAGIC = 0x504F4931; // "POI1"
+    static final int HEADER_BYTES = 64;
+    static final int DOC_BYTES = 20;
+    static final int GRAM_BYTES = 12;
+    static final int CELL_BYTES = 16;
+    // 검색용 문자열에서 이름/분류/주소를 나누는 구분자
+    static final char FIELD_SEPARATOR = '\u0001';
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    // 후보를 모두 검증하지 않고 이만큼 맞는 장소를 모으면 순위를 매깁니다.
+    private static final int MAX_VERIFIED = 64;
+    private static final String NO_INFO = "정보 없음";
+
+    private final MappedByteBuffer buffer;
+    private final int docCount;
+    private final int gramCount;
+    private final int cellCount;
+    private final double cellDegrees;
+    private final int docsOffset;
+    private final int gramsOffset;
+    private final int cellsOffset;
+    private final int postingsOffset;
+    private final int textOffset;
+    private final double anchorRadiusMeters;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private PoiIndex(MappedByteBuffer buffer, double anchorRadiusMeters) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a POI index file");
+        }
+        this.docCount = buffer.getInt(4);
+        this.gramCount = buffer.getInt(8);
+        this.cellCount = buffer.getInt(12);
+        this.cellDegrees = buffer.getDouble(16);
+        this.docsOffset = (int) buffer.getLong(24);
+        this.gramsOffset = (int) buffer.getLong(32);
+        this.cellsOffset = (int) buffer.getLong(40);
+        this.postingsOffset = (int) buffer.getLong(48);
+        this.textOffset = (int) buffer.getLong(56);
+        this.anchorRadiusMeters = anchorRadiusMeters;
+    }
+
+    public static PoiIndex open(Path path, double anchorRadiusMeters) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return new PoiIndex(buffer, anchorRadiusMeters);
+        }
+    }
+
+    public int size() {
+        return docCount;
+    }
+
+    /** 검색어에 맞는 장소를 최대 limit개 돌려줍니다. 카카오 키워드 검색 결과와 같은 필드를 씁니다. */
+    public List<Map<String, String>> search(String query, int limit) {
+        List<String> terms = terms(query);
+        int[] docs = terms.isEmpty() ? new int[0] : textSearch(terms, limit);
+        if (docs.length == 0 && terms.size() >= 2) {
+            docs = anchoredSearch(terms, limit);
+        }
+        (docs.length == 0 ? misses : hits).incrementAndGet();
+        List<Map<String, String>> places = new ArrayList<>(docs.length);
+        for (int doc : docs) {
+            places.add(place(doc));
+        }
+        return places;
+    }
+
+    public Stats stats() {
+        return new Stats(hits.get(), misses.get(), docCount);
+    }
+
+    // 모든 단어를 포함하는 장소를 번호 순으로 MAX_VERIFIED개까지 모은 뒤, 이름에 단어가 많이 들어간 순으로 고릅니다.
+    private int[] textSearch(List<String> terms, int limit) {
+        List<int[]> scored = new ArrayList<>();
+        forEachCandidate(terms, doc -> {
+            String text = searchText(doc);
+            if (containsAll(text, terms)) {
+                scored.add(new int[]{doc, nameScore(text, terms)});
+            }
+            return scored.size() < MAX_VERIFIED;
+        });
+        return scored.stream()
+                .sorted(Comparator.comparingInt((int[] s) -> -s[1]))
+                .limit(limit)
+                .mapToInt(s -> s[0])
+                .toArray();
+    }
+
+    // 이름이 단어와 정확히 같은 장소를 기준점으로 잡고, 반경 안에서 나머지 단어를 모두 포함하는 장소를 찾습니다.
+    private int[] anchoredSearch(List<String> terms, int limit) {
+        for (int t = 0; t < terms.size(); t++) {
+            int anchor = findAnchor(terms.get(t));
+            if (anchor < 0) {
+                continue;
+            }
+            List<String> rest = new ArrayList<>(terms);
+            rest.remove(t);
+            int[] nearby = nearbyMatches(anchor, rest, limit);
+            if (nearby.length > 0) {
+                return nearby;
+            }
+        }
+        return new int[0];
+    }
+
+    private int findAnchor(String term) {
+        int[] anchor = {-1};
+        if (term.length() >= 2) {
+            forEachCandidate(List.of(term), doc -> {
+                String text = searchText(doc);
+                if (text.indexOf(FIELD_SEPARATOR) == term.length() && text.startsWith(term)) {
+                    anchor[0] = doc;
+                    return false;
+                }
+                return true;
+            });
+        }
+        return anchor[0];
+    }
+
+    // 가장 짧은 bigram 게시 목록과 반경을 덮는 격자 칸 중 작은 쪽에서 반경 안의 장소를 거리만으로 먼저 고르고,
+    // 가까운 순으로 단어를 확인해 limit개를 채웁니다.
+    private int[] nearbyMatches(int anchor, List<String> terms, int limit) {
+        int[] shortest = shortestPostingList(terms);
+        if (shortest == null) {
+            return new int[0];
+        }
+        double ax = x(anchor);
+        double ay = y(anchor);
+        int[][] cells = cellsAround(ax, ay, anchorRadiusMeters);
+        int gridCandidates = 0;
+        for (int[] cell : cells) {
+            gridCandidates += cell[1];
+        }
+        int[][] ranges = shortest[1] <= gridCandidates ? new int[][]{shortest} : cells;
+        // 반경이 짧아 기준점 위도의 경도 1도 길이를 그대로 쓰고, 제곱 거리로 비교합니다.
+        double metersPerDegreeX = METERS_PER_DEGREE * Math.cos(Math.toRadians(ay));
+        double radiusSquared = anchorRadiusMeters * anchorRadiusMeters;
+        List<double[]> nearby = new ArrayList<>();
+        for (int[] range : ranges) {
+            for (int i = 0; i < range[1]; i++) {
+                int doc = posting(range[0] + i);
+                double dx = (x(doc) - ax) * metersPerDegreeX;
+                double dy = (y(doc) - ay) * METERS_PER_DEGREE;
+                double distanceSquared = dx * dx + dy * dy;
+                if (distanceSquared <= radiusSquared && doc != anchor) {
+                    nearby.add(new double[]{doc, distanceSquared});
+                }
+            }
+        }
+        nearby.sort(Comparator.comparingDouble((double[] m) -> m[1]));
+        int[] matches = new int[Math.min(limit, nearby.size())];
+        int found = 0;
+        for (int i = 0; i < nearby.size() && found < matches.length; i++) {
+            int doc = (int) nearby.get(i)[0];
+            if (containsAll(searchText(doc), terms)) {
+                matches[found++] = doc;
+            }
+        }
+        return Arrays.copyOf(matches, found);
+    }
+
+    // 모든 bigram 게시 목록에 들어 있는 장소를 번호 순으로 넘깁니다. 가장 짧은 목록을 돌며 나머지 목록은 앞으로만
+    // 건너뛰며 찾고, consumer가 false를 돌려주면 멈춥니다. 한 글자 단어는 후보를 줄이지 않고 검증 때만 씁니다.
+    private void forEachCandidate(List<String> terms, IntPredicate consumer) {
+        List<int[]> lists = postingLists(terms);
+        if (lists == null || lists.isEmpty()) {
+            return;
+        }
+        lists.sort(Comparator.comparingInt((int[] l) -> l[1]));
+        int[] cursors = new int[lists.size()];
+        for (int l = 0; l < lists.size(); l++) {
+            cursors[l] = lists.get(l)[0];
+        }
+        int[] first = lists.get(0);
+        for (int i = 0; i < first[1]; i++) {
+            int doc = posting(first[0] + i);
+            boolean inAll = true;
+            for (int l = 1; l < lists.size() && inAll; l++) {
+                int end = lists.get(l)[0] + lists.get(l)[1];
+                cursors[l] = seek(cursors[l], end, doc);
+                if (cursors[l] == end) {
+                    return;
+                }
+                inAll = posting(cursors[l]) == doc;
+            }
+            if (inAll && !consumer.test(doc)) {
+                return;
+            }
+        }
+    }
+
+    private int[] shortestPostingList(List<String> terms) {
+        List<int[]> lists = postingLists(terms);
+        if (lists == null || lists.isEmpty()) {
+            return null;
+        }
+        return lists.stream().min(Comparator.comparingInt((int[] l) -> l[1])).orElseThrow();
+    }
+
+    // 단어들의 bigram 게시 목록. 하나라도 없으면 null.
+    private List<int[]> postingLists(List<String> terms) {
+        List<int[]> lists = new ArrayList<>();
+        for (String term : terms) {
+            for (int i = 0; i + 1 < term.length(); i++) {
+                int[] list = postingList(gramKey(term.charAt(i), term.charAt(i + 1)));
+                if (list == null) {
+                    return null;
+                }
+                lists.add(list);
+            }
+        }
+        return lists;
+    }
+
+    // {게시 목록 시작, 개수}. 없는 bigram이면 null.
+    private int[] postingList(int key) {
+        int lo = 0;
+        int hi = gramCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int at = gramsOffset + mid * GRAM_BYTES;
+            int midKey = buffer.getInt(at);
+            if (midKey < key) {
+                lo = mid + 1;
+            } else if (midKey > key) {
+                hi = mid - 1;
+            } else {
+                return new int[]{buffer.getInt(at + 4), buffer.getInt(at + 8)};
+            }
+        }
+        return null;
+    }
+
+    // [from, to) 구간에서 doc 이상인 첫 위치(없으면 to). 커서 근처에 있을 때가 많아 지수 간격으로 넓혀 가며 찾습니다.
+    private int seek(int from, int to, int doc) {
+        int step = 1;
+        int lo = from;
+        while (lo + step < to && posting(lo + step) < doc) {
+            lo += step;
+            step <<= 1;
+        }
+        int hi = Math.min(lo + step, to);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (posting(mid) < doc) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // 반경을 덮는 격자 칸들의 {게시 목록 시작, 개수}
+    private int[][] cellsAround(double x, double y, double radiusMeters) {
+        double dy = radiusMeters / METERS_PER_DEGREE;
+        double dx = radiusMeters / (METERS_PER_DEGREE * Math.cos(Math.toRadians(y)));
+        int minCol = (int) Math.floor((x - dx) / cellDegrees);
+        int maxCol = (int) Math.floor((x + dx) / cellDegrees);
+        int minRow = (int) Math.floor((y - dy) / cellDegrees);
+        int maxRow = (int) Math.floor((y + dy) / cellDegrees);
+        List<int[]> cells = new ArrayList<>();
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                int[] cell = cell(cellKey(row, col));
+                if (cell != null) {
+                    cells.add(cell);
+                }
+            }
+        }
+        return cells.toArray(new int[0][]);
+    }
+
+    private int[] cell(long key) {
+        int lo = 0;
+        int hi = cellCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int at = cellsOffset + mid * CELL_BYTES;
+            long midKey = buffer.getLong(at);
+            if (midKey < key) {
+                lo = mid + 1;
+            } else if (midKey > key) {
+                hi = mid - 1;
+            } else {
+                return new int[]{buffer.getInt(at + 8), buffer.getInt(at + 12)};
+            }
+        }
+        return null;
+    }
+
+    private int posting(int index) {
+        return buffer.getInt(postingsOffset + index * 4);
+    }
+
+    private double x(int doc) {
+        return buffer.getDouble(docsOffset + doc * DOC_BYTES);
+    }
+
+    private double y(int doc) {
+        return buffer.getDouble(docsOffset + doc * DOC_BYTES + 8);
+    }
+
+    // 문자열은 이름, 주소, 분류, 전화번호, URL, 검색용 문자열 순으로 길이(int)와 UTF-8 바이트가 이어집니다.
+    private String[] displayStrings(int doc) {
+        int at = textOffset + buffer.getInt(docsOffset + doc * DOC_BYTES + 16);
+        String[] values = new String[PoiIndexBuilder.FIELDS];
+        for (int i = 0; i < values.length; i++) {
+            int length = buffer.getInt(at);
+            byte[] bytes = new byte[length];
+            buffer.get(at + 4, bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+            at += 4 + length;
+        }
+        return values;
+    }
+
+    // 표시용 문자열은 길이만 보고 건너뛰고 검색용 문자열만 읽습니다.
+    private String searchText(int doc) {
+        int at = textOffset + buffer.getInt(docsOffset + doc * DOC_BYTES + 16);
+        for (int i = 0; i < PoiIndexBuilder.FIELDS; i++) {
+            at += 4 + buffer.getInt(at);
+        }
+        byte[] bytes = new byte[buffer.getInt(at)];
+        buffer.get(at + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Map<String, String> place(int doc) {
+        String[] values = displayStrings(doc);
+        Map<String, String> place = new HashMap<>();
+        place.put("place_name", values[0]);
+        place.put("address_name", values[1]);
+        place.put("category_name", values[2]);
+        place.put("phone", values[3].isEmpty() ? NO_INFO : values[3]);
+        place.put("place_url", values[4].isEmpty() ? NO_INFO : values[4]);
+        return place;
+    }
+
+    private static boolean containsAll(String text, List<String> terms) {
+        for (String term : terms) {
+            if (!text.contains(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int nameScore(String text, List<String> terms) {
+        String name = text.substring(0, text.indexOf(FIELD_SEPARATOR));
+        int score = 0;
+        for (String term : terms) {
+            if (name.contains(term)) {
+                score++;
+            }
+        }
+        return score;
+    }
+
+
+    /** 검색어와 색인 문자열을 같은 방식으로 단어로 나눕니다. 분류의 "음식점 > 중식" 같은 구분 기호도 경계로 봅니다. */
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String term : PlaceSearchCache.normalize(text).split("[\\s>,/()·\\-\"']+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    static int gramKey(char first, char second) {
+        return (first << 16) | second;
+    }
+
+    static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    public record Stats(long hits, long misses, int documents) {
+    }
+}
@@ -0,0 +1,267 @@
+package hackathon.chatbot.Poi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hackathon.chatbot.Cache.PlaceSearchCache;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 장소 대량 파일(CSV 또는 JSONL)을 {@link PoiIndex} 파일로 만듭니다.
+ * 두 형식 모두 카카오 키워드 검색 문서와 같은 이름(place_name, address_name, category_name, phone, place_url, x, y)을 씁니다.
+ * CSV는 첫 줄이 열 이름이어야 하고, JSONL은 한 줄에 장소 하나입니다.
+ */
+public final class PoiIndexBuilder {
+
+    // 장소마다 저장하는 표시용 문자열 수. 뒤에 검색용 문자열이 하나 더 붙습니다.
+    static final int FIELDS = 5;
+    private static final String[] COLUMNS = {"place_name", "address_name", "category_name", "phone", "place_url"};
+    // 격자 한 칸은 약 1km
+    private static final double CELL_DEGREES = 0.01;
+
+    private PoiIndexBuilder() {
+    }
+
+    /** 색인 파일이 없거나 원본보다 오래됐을 때만 다시 만듭니다. */
+    public static void buildIfStale(Path source, Path target) throws IOException {
+        if (Files.exists(target) && !Files.getLastModifiedTime(target).toInstant()
+                .isBefore(Files.getLastModifiedTime(source).toInstant())) {
+            return;
+        }
+        build(source, target);
+    }
+
+    public static void build(Path source, Path target) throws IOException {
+        String name = source.getFileName().toString().toLowerCase(Locale.ROOT);
+        List<Place> places = name.endsWith(".jsonl") || name.endsWith(".json") ? readJsonLines(source) : readCsv(source);
+        // 읽는 쪽이 부분적으로 쓴 파일을 열지 않도록 임시 파일에 쓴 뒤 바꿔치기합니다.
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            write(places, temp);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static void write(List<Place> places, Path target) throws IOException {
+        Map<Integer, IntList> grams = new HashMap<>();
+        Map<Long, IntList> cells = new HashMap<>();
+        List<byte[]> texts = new ArrayList<>(places.size());
+        int[] textPositions = new int[places.size()];
+        long textBytes = 0;
+        for (int doc = 0; doc < places.size(); doc++) {
+            Place place = places.get(doc);
+            String searchText = PlaceSearchCache.normalize(place.values[0]) + PoiIndex.FIELD_SEPARATOR
+                    + PlaceSearchCache.normalize(place.values[2]) + PoiIndex.FIELD_SEPARATOR
+                    + PlaceSearchCache.normalize(place.values[1]);
+            for (int field : new int[]{0, 2, 1}) {
+                for (String term : PoiIndex.terms(place.values[field])) {
+                    for (int i = 0; i + 1 < term.length(); i++) {
+                        grams.computeIfAbsent(PoiIndex.gramKey(term.charAt(i), term.charAt(i + 1)), k -> new IntList()).addDoc(doc);
+                    }
+                }
+            }
+            long cell = PoiIndex.cellKey((int) Math.floor(place.y / CELL_DEGREES), (int) Math.floor(place.x / CELL_DEGREES));
+            cells.computeIfAbsent(cell, k -> new IntList()).addDoc(doc);
+
+            textPositions[doc] = (int) textBytes;
+            for (String value : place.values) {
+                textBytes += addText(texts, value);
+            }
+            textBytes += addText(texts, searchText);
+        }
+
+        // 키 순으로 정렬해야 읽는 쪽에서 이진 탐색할 수 있습니다.
+        TreeMap<Integer, IntList> sortedGrams = new TreeMap<>(grams);
+        TreeMap<Long, IntList> sortedCells = new TreeMap<>(cells);
+        long postingCount = 0;
+        for (IntList list : grams.values()) {
+            postingCount += list.size;
+        }
+        for (IntList list : cells.values()) {
+            postingCount += list.size;
+        }
+
+        long docsOffset = PoiIndex.HEADER_BYTES;
+        long gramsOffset = docsOffset + (long) places.size() * PoiIndex.DOC_BYTES;
+        long cellsOffset = gramsOffset + (long) sortedGrams.size() * PoiIndex.GRAM_BYTES;
+        long postingsOffset = cellsOffset + (long) sortedCells.size() * PoiIndex.CELL_BYTES;
+        long textOffset = postingsOffset + postingCount * 4;
+        long fileSize = textOffset + textBytes;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("POI index would exceed 2GB: " + fileSize + " bytes");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) fileSize).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(PoiIndex.MAGIC).putInt(places.size()).putInt(sortedGrams.size()).putInt(sortedCells.size())
+                .putDouble(CELL_DEGREES)
+                .putLong(docsOffset).putLong(gramsOffset).putLong(cellsOffset).putLong(postingsOffset).putLong(textOffset);
+
+        out.position((int) docsOffset);
+        for (int doc = 0; doc < places.size(); doc++) {
+            out.putDouble(places.get(doc).x).putDouble(places.get(doc).y).putInt(textPositions[doc]);
+        }
+        int posting = 0;
+        out.position((int) gramsOffset);
+        for (Map.Entry<Integer, IntList> entry : sortedGrams.entrySet()) {
+            out.putInt(entry.getKey()).putInt(posting).putInt(entry.getValue().size);
+            posting += entry.getValue().size;
+        }
+        out.position((int) cellsOffset);
+        for (Map.Entry<Long, IntList> entry : sortedCells.entrySet()) {
+            out.putLong(entry.getKey()).putInt(posting).putInt(entry.getValue().size);
+            posting += entry.getValue().size;
+        }
+        out.position((int) postingsOffset);
+        for (IntList list : sortedGrams.values()) {
+            list.writeTo(out);
+        }
+        for (IntList list : sortedCells.values()) {
+            list.writeTo(out);
+        }
+        out.position((int) textOffset);
+        for (byte[] text : texts) {
+            out.putInt(text.length).put(text);
+        }
+
+        out.flip();
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+    }
+
+    private static int addText(List<byte[]> texts, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        texts.add(bytes);
+        return 4 + bytes.length;
+    }
+
+    static List<Place> readJsonLines(Path source) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<Place> places = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node = objectMapper.readTree(line);
+                String[] values = new String[FIELDS];
+                for (int i = 0; i < FIELDS; i++) {
+                    values[i] = node.path(COLUMNS[i]).asText("");
+                }
+                places.add(new Place(values, node.path("x").asDouble(), node.path("y").asDouble()));
+            }
+        }
+        return places;
+    }
+
+    static List<Place> readCsv(Path source) throws IOException {
+        List<Place> places = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return places;
+            }
+            List<String> columns = Arrays.asList(parseCsvLine(header.replace("\uFEFF", "")));
+            int[] index = new int[FIELDS];
+            for (int i = 0; i < FIELDS; i++) {
+                index[i] = columns.indexOf(COLUMNS[i]);
+            }
+            int x = columns.indexOf("x");
+            int y = columns.indexOf("y");
+            if (index[0] < 0 || x < 0 || y < 0) {
+                throw new IllegalArgumentException("CSV header must contain place_name, x and y: " + header);
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] row = parseCsvLine(line);
+                String[] values = new String[FIELDS];
+                for (int i = 0; i < FIELDS; i++) {
+                    values[i] = index[i] >= 0 && index[i] < row.length ? row[index[i]] : "";
+                }
+                places.add(new Place(values, Double.parseDouble(row[x]), Double.parseDouble(row[y])));
+            }
+        }
+        return places;
+    }
+
+    // 큰따옴표로 감싼 값 안의 쉼표와 ""(따옴표 이스케이프)를 처리합니다. 값 안의 줄바꿈은 지원하지 않습니다.
+    static String[] parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString().trim());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString().trim());
+        return values.toArray(new String[0]);
+    }
+
+    // values: place_name, address_name, category_name, phone, place_url
+    record Place(String[] values, double x, double y) {
+    }
+
+    // 장소 번호를 오름차순으로 쌓는 게시 목록. 같은 장소가 연달아 들어오면 한 번만 넣습니다.
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void addDoc(int doc) {
+            if (size > 0 && values[size - 1] == doc) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = doc;
+        }
+
+        void writeTo(ByteBuffer out) {
+            for (int i = 0; i < size; i++) {
+                out.putInt(values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package hackathon.chatbot.Resilience;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * 외부 호출 대기열에서의 우선순위. 컨트롤러가 Reactor Context에 넣어 두면 호출 제한기가 읽습니다.
+ * 사용자가 기다리는 채팅(INTERACTIVE)이 여러 구간을 한꺼번에 조회하는 경로 계산(BULK)보다 먼저 나갑니다.
+ */
+public enum RequestPriority {
+    INTERACTIVE,
+    BULK;
+
+    private static final String CONTEXT_KEY = RequestPriority.class.getName();
+
+    public <T> Mono<T> applyTo(Mono<T> pipeline) {
+        return pipeline.contextWrite(context -> context.put(CONTEXT_KEY, this));
+    }
+
+    public <T> Flux<T> applyTo(Flux<T> pipeline) {
+        return pipeline.contextWrite(context -> context.put(CONTEXT_KEY, this));
+    }
+
+    // 지정하지 않은 호출은 BULK로 취급합니다.
+    static RequestPriority from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, BULK);
+    }
+}
@@ -0,0 +1,215 @@
+package hackathon.chatbot.Resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 외부 API 하나의 초당 호출 한도를 지키는 토큰 버킷.
+ * 토큰이 없으면 우선순위별 대기열(최대 maxQueue)에서 기다리고, 대기열이 가득 찼거나 maxWait를 넘기면
+ * {@link UpstreamOverloadedException}으로 바로 실패시킵니다. 대기열이 가득 찬 상태에서 INTERACTIVE 요청이 오면
+ * 가장 최근에 들어온 BULK 요청을 대신 내보냅니다.
+ */
+public class TokenBucketLimiter {
+
+    private final String upstream;
+    private final double permitsPerSecond;
+    private final double permitsPerNano;
+    private final double burst;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final Scheduler timer = Schedulers.parallel();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Waiter> interactive = new ArrayDeque<>();
+    private final ArrayDeque<Waiter> bulk = new ArrayDeque<>();
+    private double tokens;
+    private long refilledAt;
+    private boolean drainScheduled;
+
+    private final Counter queueFull;
+    private final Counter timedOut;
+    private final Counter preempted;
+
+    public TokenBucketLimiter(String upstream, double permitsPerSecond, int burst, int maxQueue, Duration maxWait,
+                              MeterRegistry registry) {
+        this.upstream = upstream;
+        this.permitsPerSecond = permitsPerSecond;
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.tokens = burst;
+        this.refilledAt = System.nanoTime();
+        this.queueFull = rejectedCounter(registry, "queue_full");
+        this.timedOut = rejectedCounter(registry, "timeout");
+        this.preempted = rejectedCounter(registry, "preempted");
+    }
+
+    public <T> Mono<T> limit(Mono<T> call) {
+        return acquire().then(call);
+    }
+
+    /** 토큰을 하나 받을 때까지 기다립니다. 우선순위는 Reactor Context의 {@link RequestPriority}를 따릅니다. */
+    public Mono<Void> acquire() {
+        return Mono.deferContextual(context -> acquire(RequestPriority.from(context)));
+    }
+
+    /** 기다리지 않고 지금 토큰이 있을 때만 가져갑니다(헤지 요청처럼 없어도 되는 호출용). */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            if (waitingLocked() == 0 && tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Mono<Void> acquire(RequestPriority priority) {
+        return Mono.create(sink -> admit(sink, priority));
+    }
+
+    private void admit(MonoSink<Void> sink, RequestPriority priority) {
+        long now = System.nanoTime();
+        Waiter waiter = new Waiter(sink, priority, now + maxWaitNanos);
+        // 대기열에 넣기 전에 등록합니다. 넣은 뒤에 등록하면 그 사이에 온 취소를 놓쳐, 취소된 대기자가 토큰을 가져갑니다.
+        sink.onCancel(() -> remove(waiter));
+        Waiter shed = null;
+        boolean granted = false;
+        boolean rejected = false;
+        lock.lock();
+        try {
+            refill(now);
+            if (waitingLocked() == 0 && tokens >= 1) {
+                tokens -= 1;
+                granted = true;
+            } else if (waitingLocked() >= maxQueue && (priority == RequestPriority.BULK || bulk.isEmpty())) {
+                rejected = true;
+            } else {
+                if (waitingLocked() >= maxQueue) {
+                    shed = bulk.pollLast();
+                }
+                (priority == RequestPriority.INTERACTIVE ? interactive : bulk).addLast(waiter);
+                scheduleDrainLocked(now);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (shed != null) {
+            preempted.increment();
+            shed.sink().error(overloaded());
+        }
+        if (granted) {
+            sink.success();
+        } else if (rejected) {
+            queueFull.increment();
+            sink.error(overloaded());
+        }
+    }
+
+    private void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        List<Waiter> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            drainScheduled = false;
+            long now = System.nanoTime();
+            refill(now);
+            interactive.removeIf(waiter -> waiter.deadline() - now < 0 && expired.add(waiter));
+            bulk.removeIf(waiter -> waiter.deadline() - now < 0 && expired.add(waiter));
+            while (tokens >= 1) {
+                Waiter next = interactive.isEmpty() ? bulk.pollFirst() : interactive.pollFirst();
+                if (next == null) {
+                    break;
+                }
+                tokens -= 1;
+                granted.add(next);
+            }
+            if (waitingLocked() > 0) {
+                scheduleDrainLocked(now);
+            }
+        } finally {
+            lock.unlock();
+        }
+        granted.forEach(waiter -> waiter.sink().success());
+        for (Waiter waiter : expired) {
+            timedOut.increment();
+            waiter.sink().error(overloaded());
+        }
+    }
+
+    // 다음 토큰이 생길 때쯤 대기열을 다시 확인합니다. 대기 시간 초과도 이때 처리합니다.
+    private void scheduleDrainLocked(long now) {
+        if (drainScheduled) {
+            return;
+        }
+        drainScheduled = true;
+        long untilNextToken = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / permitsPerNano);
+        timer.schedule(this::drain, Math.min(untilNextToken, maxWaitNanos), TimeUnit.NANOSECONDS);
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+    }
+
+    private void remove(Waiter waiter) {
+        lock.lock();
+        try {
+            interactive.remove(waiter);
+            bulk.remove(waiter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String upstream() {
+        return upstream;
+    }
+
+    /** 지금 대기열에서 토큰을 기다리는 요청 수. ratelimit.queued 게이지는 MetricsConfig에서 등록합니다. */
+    public int waiting() {
+        lock.lock();
+        try {
+            return waitingLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int waitingLocked() {
+        return interactive.size() + bulk.size();
+    }
+
+    // 지금 대기열이 모두 빠지는 데 걸릴 시간을 Retry-After로 알려 줍니다(최소 1초).
+    private UpstreamOverloadedException overloaded() {
+        long seconds = (long) Math.ceil((waiting() + 1) / permitsPerSecond);
+        return new UpstreamOverloadedException(upstream, Duration.ofSeconds(Math.max(1, seconds)));
+    }
+
+    private Counter rejectedCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("ratelimit.rejected")
+                .tag("upstream", upstream)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private record Waiter(MonoSink<Void> sink, RequestPriority priority, long deadline) {
+    }
+}
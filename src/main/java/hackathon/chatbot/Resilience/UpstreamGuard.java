@@ -0,0 +1,154 @@
+package hackathon.chatbot.Resilience;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 외부 엔드포인트 하나에 대한 보호 계층.
+ * 먼저 호출 제한기에서 토큰을 받고, 최근 p95 지연 시간이 지나도 응답이 없으면 같은 요청을 한 번 더 보내
+ * 먼저 끝난 쪽을 쓰고 나머지는 취소합니다(헤지 요청). 전체 호출에는 마감 시간과 서킷 브레이커를 걸고,
+ * 그 바깥에 벌크헤드를 두어 동시 실행 수를 묶습니다. 벌크헤드가 가득 찬 것은 우리 쪽 포화이므로 브레이커 실패로 세지 않습니다.
+ * 벌크헤드가 가득 찼거나 브레이커가 열려 있으면 {@link UpstreamOverloadedException}으로 바꿔 503 + Retry-After로 응답하게 합니다.
+ */
+public class UpstreamGuard {
+
+    // 지연 시간 표본이 이보다 적으면 p95를 믿을 수 없어 헤지하지 않습니다.
+    private static final long MIN_SAMPLES = 20;
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String endpoint;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final TokenBucketLimiter limiter;
+    private final Duration timeout;
+    private final boolean hedgeEnabled;
+    private final long minHedgeDelayNanos;
+    private final long maxHedgeDelayNanos;
+
+    private final Timer attemptLatency;
+    private final Counter notHedged;
+    private final Counter primaryWon;
+    private final Counter hedgeWon;
+
+    private volatile long hedgeDelayNanos = -1;
+    private volatile long hedgeDelayComputedAt;
+
+    public UpstreamGuard(String endpoint, CircuitBreaker circuitBreaker, Bulkhead bulkhead, TokenBucketLimiter limiter, Duration timeout,
+                         boolean hedgeEnabled, Duration minHedgeDelay, Duration maxHedgeDelay, MeterRegistry registry) {
+        this.endpoint = endpoint;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.limiter = limiter;
+        this.timeout = timeout;
+        this.hedgeEnabled = hedgeEnabled;
+        this.minHedgeDelayNanos = minHedgeDelay.toNanos();
+        this.maxHedgeDelayNanos = maxHedgeDelay.toNanos();
+        this.attemptLatency = Timer.builder("kakao.hedge.attempt.latency")
+                .description("헤지 지연 계산에 쓰는 시도별 지연 시간")
+                .tag("endpoint", endpoint)
+                .publishPercentiles(0.95)
+                .register(registry);
+        this.notHedged = hedgeCounter(registry, endpoint, "not_hedged");
+        this.primaryWon = hedgeCounter(registry, endpoint, "primary_won");
+        this.hedgeWon = hedgeCounter(registry, endpoint, "hedge_won");
+        this.hedgeDelayComputedAt = System.nanoTime() - DELAY_REFRESH_NANOS;
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+        // 마감 시간은 호출 한도 대기열에서 기다린 시간을 빼고 잽니다(대기 상한은 제한기가 따로 둡니다).
+        return limiter.acquire()
+                .then(Mono.defer(() -> hedged(call))
+                        .timeout(timeout)
+                        .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                        .transformDeferred(BulkheadOperator.of(bulkhead)))
+                .onErrorMap(e -> e instanceof BulkheadFullException || e instanceof CallNotPermittedException, this::overloaded);
+    }
+
+    // 브레이커가 열려 있으면 반쯤 열림으로 바뀔 때까지, 벌크헤드가 가득 찼으면 1초 뒤에 다시 시도하게 합니다.
+    private UpstreamOverloadedException overloaded(Throwable cause) {
+        long retryAfterMillis = cause instanceof CallNotPermittedException
+                ? circuitBreaker.getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1)
+                : 0;
+        return new UpstreamOverloadedException(endpoint, Duration.ofSeconds(Math.max(1, (retryAfterMillis + 999) / 1000)));
+    }
+
+    private <T> Mono<T> hedged(Supplier<Mono<T>> call) {
+        long delay = hedgeDelayNanos();
+        if (delay < 0) {
+            return attempt(call).doOnSuccess(value -> notHedged.increment());
+        }
+        AtomicBoolean hedgeSent = new AtomicBoolean();
+        Mono<T> primary = attempt(call)
+                .doOnSuccess(value -> (hedgeSent.get() ? primaryWon : notHedged).increment());
+        // 헤지 요청이 실패하면 원래 요청을 계속 기다립니다. 원래 요청의 실패는 바로 전달합니다.
+        Mono<T> hedge = Mono.delay(Duration.ofNanos(delay))
+                .filter(tick -> hasSpareCapacity() && limiter.tryAcquire())
+                .doOnNext(tick -> hedgeSent.set(true))
+                .flatMap(tick -> attempt(call))
+                .doOnSuccess(value -> {
+                    if (value != null) {
+                        hedgeWon.increment();
+                    }
+                })
+                .onErrorResume(e -> Mono.never())
+                .switchIfEmpty(Mono.never());
+        return Mono.firstWithSignal(primary, hedge);
+    }
+
+    private <T> Mono<T> attempt(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.get()
+                    .doOnSuccess(value -> attemptLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    // 벌크헤드가 절반 넘게 차 있으면 헤지가 부하만 키우므로 보내지 않습니다. 헤지는 남는 토큰이 있을 때만 씁니다.
+    private boolean hasSpareCapacity() {
+        Bulkhead.Metrics metrics = bulkhead.getMetrics();
+        return metrics.getAvailableConcurrentCalls() * 2 > metrics.getMaxAllowedConcurrentCalls();
+    }
+
+    // 최근 p95를 [min, max]로 자른 값. 계산 비용 때문에 1초에 한 번만 갱신합니다.
+    private long hedgeDelayNanos() {
+        if (!hedgeEnabled) {
+            return -1;
+        }
+        long now = System.nanoTime();
+        if (now - hedgeDelayComputedAt < DELAY_REFRESH_NANOS) {
+            return hedgeDelayNanos;
+        }
+        if (attemptLatency.count() < MIN_SAMPLES) {
+            return -1;
+        }
+        hedgeDelayComputedAt = now;
+        double p95 = Double.NaN;
+        for (ValueAtPercentile value : attemptLatency.takeSnapshot().percentileValues()) {
+            p95 = value.value(TimeUnit.NANOSECONDS);
+        }
+        hedgeDelayNanos = Double.isNaN(p95) ? -1 : Math.max(minHedgeDelayNanos, Math.min(maxHedgeDelayNanos, (long) p95));
+        return hedgeDelayNanos;
+    }
+
+    private static Counter hedgeCounter(MeterRegistry registry, String endpoint, String outcome) {
+        return Counter.builder("kakao.hedge.requests")
+                .description("헤지 요청 결과: not_hedged(헤지 전에 끝남), primary_won, hedge_won")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,26 @@
+package hackathon.chatbot.Resilience;
+
+import java.time.Duration;
+
+/** 호출 제한기 대기열이 가득 찼거나 대기 시간이 지나 요청을 버릴 때 던집니다. 503 + Retry-After로 응답합니다. */
+public class UpstreamOverloadedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String upstream;
+    private final Duration retryAfter;
+
+    public UpstreamOverloadedException(String upstream, Duration retryAfter) {
+        super(upstream + " is over its request quota, retry after " + retryAfter.toSeconds() + "s");
+        this.upstream = upstream;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getUpstream() {
+        return upstream;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
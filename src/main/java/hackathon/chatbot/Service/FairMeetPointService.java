@@ -0,0 +1,161 @@
+package hackathon.chatbot.Service;
+
+import hackathon.chatbot.Dto.LocationRequest;
+import hackathon.chatbot.Dto.MeetPointMode;
+import hackathon.chatbot.Dto.MiddlePointResponse;
+import hackathon.chatbot.Dto.TravelMatrix;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 이동 시간 기준으로 공평한 약속 장소를 찾는 서비스.
+ * 좌표 평균(중심점)에서 시작해 주변 8방향 후보를 실제 길찾기 소요 시간으로 평가하고,
+ * 더 나은 후보로 옮겨 가거나 탐색 반경을 절반으로 줄이는 패턴 탐색을 시간 예산 안에서 반복합니다.
+ */
+@Service
+public class FairMeetPointService {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    private static final int RING_SIZE = 8;
+
+    private final MeetPointService meetPointService;
+    private final TravelMatrixService travelMatrixService;
+    private final Duration timeBudget;
+    private final int maxRounds;
+    private final double minRadiusMeters;
+    private final double maxRadiusMeters;
+
+    public FairMeetPointService(MeetPointService meetPointService,
+                                TravelMatrixService travelMatrixService,
+                                @Value("${meetpoint.fair.time-budget:2500ms}") Duration timeBudget,
+                                @Value("${meetpoint.fair.max-rounds:6}") int maxRounds,
+                                @Value("${meetpoint.fair.min-radius-meters:150}") double minRadiusMeters,
+                                @Value("${meetpoint.fair.max-radius-meters:5000}") double maxRadiusMeters) {
+        this.meetPointService = meetPointService;
+        this.travelMatrixService = travelMatrixService;
+        this.timeBudget = timeBudget;
+        this.maxRounds = maxRounds;
+        this.minRadiusMeters = minRadiusMeters;
+        this.maxRadiusMeters = maxRadiusMeters;
+    }
+
+    /**
+     * centroid 모드는 기존 좌표 평균을 그대로 돌려주고, 나머지 모드는 이동 시간으로 후보를 고릅니다.
+     * 시간 예산 안에 길찾기 결과를 하나도 얻지 못하면 좌표 평균으로 대신합니다.
+     */
+    public Mono<MiddlePointResponse> findMeetPoint(List<LocationRequest> origins, MeetPointMode mode) {
+        MiddlePointResponse centroid = meetPointService.calculateMiddlePoint(origins);
+        if (mode == null || mode == MeetPointMode.CENTROID) {
+            return Mono.just(centroid);
+        }
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        Candidate start = new Candidate(centroid.getX(), centroid.getY(), null, Long.MAX_VALUE);
+        double radius = initialRadius(origins, centroid);
+
+        return evaluate(origins, List.of(start), mode, deadline)
+                .defaultIfEmpty(start)
+                .flatMap(best -> refine(origins, mode, best, radius, 1, deadline))
+                .map(best -> best.feasible()
+                        ? new MiddlePointResponse(best.x(), best.y(), Arrays.stream(best.etas()).boxed().toList())
+                        : centroid);
+    }
+
+    private Mono<Candidate> refine(List<LocationRequest> origins, MeetPointMode mode, Candidate best,
+                                   double radius, int round, long deadline) {
+        if (round > maxRounds || radius < minRadiusMeters || System.nanoTime() >= deadline) {
+            return Mono.just(best);
+        }
+        return evaluate(origins, ring(best, radius), mode, deadline)
+                .flatMap(ringBest -> ringBest.cost() < best.cost()
+                        ? refine(origins, mode, ringBest, radius, round + 1, deadline) // 더 나은 쪽으로 이동
+                        : refine(origins, mode, best, radius / 2, round + 1, deadline)) // 반경을 좁혀 다시 탐색
+                .defaultIfEmpty(best);
+    }
+
+    /**
+     * 참가자 x 후보 이동 시간 행렬을 한 번에 조회해 가장 비용이 낮은 후보를 고릅니다.
+     * 남은 시간 예산을 넘기면 이번 라운드 결과는 버립니다(빈 Mono).
+     */
+    private Mono<Candidate> evaluate(List<LocationRequest> origins, List<Candidate> points, MeetPointMode mode, long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return Mono.empty();
+        }
+        double[] destinations = new double[points.size() * 2];
+        for (int i = 0; i < points.size(); i++) {
+            destinations[i * 2] = points.get(i).x();
+            destinations[i * 2 + 1] = points.get(i).y();
+        }
+
+        return travelMatrixService.compute(TravelMatrixService.coordinates(origins), destinations)
+                .map(matrix -> pickBest(points, matrix, mode))
+                .timeout(Duration.ofNanos(remaining), Mono.empty());
+    }
+
+    // 길이 없는 칸(-1)이 있는 후보는 cost()에서 제외됩니다.
+    private static Candidate pickBest(List<Candidate> points, TravelMatrix matrix, MeetPointMode mode) {
+        Candidate best = null;
+        for (int c = 0; c < points.size(); c++) {
+            int[] etas = new int[matrix.getRows()];
+            for (int p = 0; p < etas.length; p++) {
+                etas[p] = matrix.duration(p, c);
+            }
+            long cost = cost(etas, mode);
+            if (best == null || cost < best.cost()) {
+                best = new Candidate(points.get(c).x(), points.get(c).y(), etas, cost);
+            }
+        }
+        return best;
+    }
+
+    // min_max는 최장 시간을 먼저 비교하고 같으면 합계로, min_sum은 합계만 봅니다.
+    private static long cost(int[] etas, MeetPointMode mode) {
+        long max = 0;
+        long sum = 0;
+        for (int eta : etas) {
+            if (eta < 0) {
+                return Long.MAX_VALUE;
+            }
+            max = Math.max(max, eta);
+            sum += eta;
+        }
+        return mode == MeetPointMode.MIN_MAX ? (max << 32) + sum : sum;
+    }
+
+    private static List<Candidate> ring(Candidate center, double radiusMeters) {
+        double metersPerDegreeX = METERS_PER_DEGREE * Math.cos(Math.toRadians(center.y()));
+        List<Candidate> ring = new ArrayList<>(RING_SIZE);
+        for (int i = 0; i < RING_SIZE; i++) {
+            double angle = 2 * Math.PI * i / RING_SIZE;
+            ring.add(new Candidate(
+                    center.x() + radiusMeters * Math.cos(angle) / metersPerDegreeX,
+                    center.y() + radiusMeters * Math.sin(angle) / METERS_PER_DEGREE,
+                    null, Long.MAX_VALUE));
+        }
+        return ring;
+    }
+
+    // 참가자들이 흩어진 정도의 절반에서 탐색을 시작합니다.
+    private double initialRadius(List<LocationRequest> origins, MiddlePointResponse centroid) {
+        double metersPerDegreeX = METERS_PER_DEGREE * Math.cos(Math.toRadians(centroid.getY()));
+        double spread = 0;
+        for (LocationRequest origin : origins) {
+            double dx = (origin.getX() - centroid.getX()) * metersPerDegreeX;
+            double dy = (origin.getY() - centroid.getY()) * METERS_PER_DEGREE;
+            spread = Math.max(spread, Math.hypot(dx, dy));
+        }
+        return Math.max(minRadiusMeters, Math.min(maxRadiusMeters, spread / 2));
+    }
+
+    private record Candidate(double x, double y, int[] etas, long cost) {
+        boolean feasible() {
+            return cost != Long.MAX_VALUE;
+        }
+    }
+}
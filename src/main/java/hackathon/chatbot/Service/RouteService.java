@@ -1,68 +1,58 @@
 package hackathon.chatbot.Service;
 
 import hackathon.chatbot.Dto.*;
+import hackathon.chatbot.Geo.PathFormat;
+import hackathon.chatbot.Geo.PathOptions;
+import hackathon.chatbot.Geo.RouteGeometry;
+import hackathon.chatbot.KakaoMobilityClient;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class RouteService {
 
-    private final MeetPointService meetPointService;
+    private final FairMeetPointService fairMeetPointService;
+    private final KakaoMobilityClient kakaoMobilityClient;
 
-    @Value("${kakao.api.key}")
-    private String kakaoApiKey;
+    // 한 요청에서 동시에 보낼 수 있는 길찾기 호출 수 상한
+    @Value("${kakao.route.max-concurrency:8}")
+    private int maxConcurrency;
 
-    private WebClient getWebClient() {
-        return WebClient.builder()
-                .baseUrl("https://apis-navi.kakaomobility.com")
-                .defaultHeader("Authorization", "KakaoAK " + kakaoApiKey)
-                .build();
+    public Mono<List<RouteResult>> calculateRouteToMiddle(List<LocationRequest> origins, MeetPointMode mode, PathOptions pathOptions) {
+        // 이동 시간 기준 모드에서는 후보 평가 때 받은 경로가 캐시에 남아 있어 아래 길찾기는 대부분 캐시에서 끝납니다.
+        return fairMeetPointService.findMeetPoint(origins, mode)
+                .flatMap(middle -> calculateRoutes(origins, middle.getX(), middle.getY(), pathOptions));
     }
 
-    public List<RouteResult> calculateRouteToMiddle(List<LocationRequest> origins) {
-        MiddlePointResponse middle = meetPointService.calculateMiddlePoint(origins);
-        double midX = middle.getX();
-        double midY = middle.getY();
-
-        List<RouteResult> results = new ArrayList<>();
-        for (LocationRequest origin : origins) {
-            results.add(callKakaoRouteApi(origin.getX(), origin.getY(), midX, midY));
-        }
-        return results;
+    private Mono<List<RouteResult>> calculateRoutes(List<LocationRequest> origins, double midX, double midY, PathOptions pathOptions) {
+        // 참가자별 길찾기를 한 번에 보내고, 결과는 입력 순서대로 모읍니다.
+        return Flux.fromIterable(origins)
+                .flatMapSequential(origin -> callKakaoRouteApi(origin.getX(), origin.getY(), midX, midY, pathOptions), maxConcurrency)
+                .collectList();
     }
 
-    private RouteResult callKakaoRouteApi(double startX, double startY, double endX, double endY) {
-        KakaoRouteResponse response = getWebClient().get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/v1/directions")
-                        .queryParam("origin", startX + "," + startY)
-                        .queryParam("destination", endX + "," + endY)
-                        .queryParam("priority", "DISTANCE")
-                        .build())
-                .retrieve()
-                .bodyToMono(KakaoRouteResponse.class)
-                .block();
+    private Mono<RouteResult> callKakaoRouteApi(double startX, double startY, double endX, double endY, PathOptions pathOptions) {
+        return kakaoMobilityClient.getDirections(startX, startY, endX, endY)
+                .map(leg -> toRouteResult(leg, endX, endY, pathOptions));
+    }
 
-        int duration = response.getRoutes().get(0).getSummary().getDuration();
-        int distance = response.getRoutes().get(0).getSummary().getDistance();
-        List<Double>vertexes = response.getRoutes()
-                .get(0).getSections()
-                .get(0).getRoads()
-                .stream()
-                .flatMap(road->road.getVertexes().stream())
-                .toList();
-        List<Point>path = new ArrayList<>();
-        for(int i=0;i<vertexes.size();i+=2){
-            double x = vertexes.get(i);
-            double y = vertexes.get(i+1);
-            path.add(new Point(x, y));
+    // 캐시에는 원본 해상도 경로를 두고, 요청마다 단순화한 뒤 원하는 형식으로 내보냅니다.
+    // points 형식일 때만 좌표를 Point 객체로 풀고, 나머지는 원시 배열에서 바로 문자열로 인코딩합니다.
+    public static RouteResult toRouteResult(DirectionsLeg leg, double endX, double endY, PathOptions pathOptions) {
+        RouteGeometry geometry = pathOptions.simplify(leg.getGeometry());
+        PathFormat format = pathOptions.format();
+        RouteResult result = format == PathFormat.POINTS
+                ? new RouteResult(endX, endY, leg.getDuration(), leg.getDistance(), geometry.toPoints(Point::new))
+                : new RouteResult(endX, endY, leg.getDuration(), leg.getDistance(), format, format.encode(geometry));
+        if (pathOptions.simplifies()) {
+            result.setSimplification(leg.getGeometry().pointCount(), geometry.pointCount());
         }
-        return new RouteResult(endX, endY, duration, distance,path);
+        return result;
     }
 }
@@ -0,0 +1,189 @@
+package hackathon.chatbot.Service;
+
+import hackathon.chatbot.Dto.DirectionsLeg;
+import hackathon.chatbot.Dto.LocationRequest;
+import hackathon.chatbot.Dto.TravelMatrix;
+import hackathon.chatbot.KakaoMobilityClient;
+import hackathon.chatbot.Resilience.UpstreamOverloadedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 여러 출발지 x 여러 도착지의 이동 시간/거리 행렬을 계산하는 서비스.
+ * 칸마다 길찾기를 부르는 대신, 개수가 적은 쪽을 기준점으로 삼아 카카오 다중 목적지(또는 다중 출발지)
+ * 길찾기로 최대 chunk-size개씩 묶어 동시에 조회합니다.
+ * 캐시에 있는 구간은 호출하지 않고, 반경을 벗어나거나 묶음 조회에 실패한 칸만 단건 길찾기로 채웁니다.
+ */
+@Service
+public class TravelMatrixService {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    private final KakaoMobilityClient kakaoMobilityClient;
+    private final int chunkSize;
+    private final int radiusMeters;
+    private final int maxConcurrency;
+    private final int maxCells;
+
+    public TravelMatrixService(KakaoMobilityClient kakaoMobilityClient,
+                               @Value("${kakao.matrix.chunk-size:30}") int chunkSize,
+                               @Value("${kakao.matrix.radius-meters:10000}") int radiusMeters,
+                               @Value("${kakao.route.max-concurrency:8}") int maxConcurrency,
+                               @Value("${kakao.matrix.max-cells:900}") int maxCells) {
+        this.kakaoMobilityClient = kakaoMobilityClient;
+        this.chunkSize = chunkSize;
+        this.radiusMeters = radiusMeters;
+        this.maxConcurrency = maxConcurrency;
+        this.maxCells = maxCells;
+    }
+
+    public Mono<TravelMatrix> compute(List<LocationRequest> origins, List<LocationRequest> destinations) {
+        if (origins == null || origins.isEmpty() || destinations == null || destinations.isEmpty()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Origins and destinations must not be empty"));
+        }
+        if ((long) origins.size() * destinations.size() > maxCells) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Matrix must contain at most " + maxCells + " cells"));
+        }
+        return compute(coordinates(origins), coordinates(destinations));
+    }
+
+    /** origins, destinations는 x, y를 번갈아 담은 배열입니다. */
+    public Mono<TravelMatrix> compute(double[] origins, double[] destinations) {
+        return Mono.defer(() -> {
+            int rows = origins.length / 2;
+            int cols = destinations.length / 2;
+            int[] durations = new int[rows * cols];
+            int[] distances = new int[rows * cols];
+            Arrays.fill(durations, -1);
+            Arrays.fill(distances, -1);
+            List<Batch> batches = plan(origins, destinations, durations, distances);
+
+            return Flux.fromIterable(batches)
+                    .flatMap(batch -> fetch(batch, origins, destinations)
+                            .onErrorResume(e -> !(e instanceof UpstreamOverloadedException), e -> Mono.empty()), maxConcurrency) // 실패한 묶음은 단건 조회로 넘김, 호출 한도 초과는 그대로 전달
+                    .doOnNext(filled -> filled.writeTo(durations, distances))
+                    .thenMany(Flux.defer(() -> Flux.fromArray(missingCells(durations))))
+                    .flatMap(cell -> {
+                        int row = cell / cols;
+                        int col = cell % cols;
+                        return kakaoMobilityClient.getDirections(origins[row * 2], origins[row * 2 + 1],
+                                        destinations[col * 2], destinations[col * 2 + 1])
+                                .map(leg -> new Filled(new int[]{cell}, new int[]{leg.getDuration(), leg.getDistance()}))
+                                .onErrorResume(e -> !(e instanceof UpstreamOverloadedException), e -> Mono.empty()); // 길이 없는 칸은 -1로 남김, 호출 한도 초과는 그대로 전달
+                    }, maxConcurrency)
+                    .doOnNext(filled -> filled.writeTo(durations, distances))
+                    .then(Mono.fromCallable(() -> new TravelMatrix(rows, cols, durations, distances)));
+        });
+    }
+
+    /**
+     * 같은 지점과 캐시에 있는 칸은 바로 채우고, 나머지를 기준점별로 chunk-size개씩 묶습니다.
+     * 직선거리가 반경을 넘는 칸은 다중 길찾기에서 실패하므로 묶지 않습니다.
+     */
+    private List<Batch> plan(double[] origins, double[] destinations, int[] durations, int[] distances) {
+        int rows = origins.length / 2;
+        int cols = destinations.length / 2;
+        boolean byOrigin = rows <= cols;
+        int anchors = byOrigin ? rows : cols;
+        int others = byOrigin ? cols : rows;
+        List<Batch> batches = new ArrayList<>();
+        int[] pending = new int[chunkSize];
+        for (int anchor = 0; anchor < anchors; anchor++) {
+            int size = 0;
+            for (int other = 0; other < others; other++) {
+                int row = byOrigin ? anchor : other;
+                int col = byOrigin ? other : anchor;
+                int cell = row * cols + col;
+                double startX = origins[row * 2];
+                double startY = origins[row * 2 + 1];
+                double endX = destinations[col * 2];
+                double endY = destinations[col * 2 + 1];
+                if (startX == endX && startY == endY) {
+                    durations[cell] = 0;
+                    distances[cell] = 0;
+                    continue;
+                }
+                DirectionsLeg cached = kakaoMobilityClient.getCached(startX, startY, endX, endY);
+                if (cached != null) {
+                    durations[cell] = cached.getDuration();
+                    distances[cell] = cached.getDistance();
+                    continue;
+                }
+                if (straightMeters(startX, startY, endX, endY) > radiusMeters) {
+                    continue;
+                }
+                pending[size++] = cell;
+                if (size == chunkSize) {
+                    batches.add(new Batch(byOrigin, anchor, Arrays.copyOf(pending, size)));
+                    size = 0;
+                }
+            }
+            if (size > 0) {
+                batches.add(new Batch(byOrigin, anchor, Arrays.copyOf(pending, size)));
+            }
+        }
+        return batches;
+    }
+
+    private Mono<Filled> fetch(Batch batch, double[] origins, double[] destinations) {
+        int cols = destinations.length / 2;
+        double[] others = new double[batch.cells().length * 2];
+        for (int i = 0; i < batch.cells().length; i++) {
+            int cell = batch.cells()[i];
+            int index = batch.byOrigin() ? cell % cols : cell / cols;
+            double[] source = batch.byOrigin() ? destinations : origins;
+            others[i * 2] = source[index * 2];
+            others[i * 2 + 1] = source[index * 2 + 1];
+        }
+        int anchor = batch.anchor();
+        Mono<int[]> summaries = batch.byOrigin()
+                ? kakaoMobilityClient.getDestinationSummaries(origins[anchor * 2], origins[anchor * 2 + 1], others, radiusMeters)
+                : kakaoMobilityClient.getOriginSummaries(others, destinations[anchor * 2], destinations[anchor * 2 + 1], radiusMeters);
+        return summaries.map(result -> new Filled(batch.cells(), result));
+    }
+
+    private static Integer[] missingCells(int[] durations) {
+        return IntStream.range(0, durations.length)
+                .filter(cell -> durations[cell] < 0)
+                .boxed()
+                .toArray(Integer[]::new);
+    }
+
+    private static double straightMeters(double startX, double startY, double endX, double endY) {
+        double dx = (endX - startX) * METERS_PER_DEGREE * Math.cos(Math.toRadians((startY + endY) / 2));
+        double dy = (endY - startY) * METERS_PER_DEGREE;
+        return Math.hypot(dx, dy);
+    }
+
+    static double[] coordinates(List<LocationRequest> locations) {
+        double[] coordinates = new double[locations.size() * 2];
+        for (int i = 0; i < locations.size(); i++) {
+            coordinates[i * 2] = locations.get(i).getX();
+            coordinates[i * 2 + 1] = locations.get(i).getY();
+        }
+        return coordinates;
+    }
+
+    // 기준점(anchor) 하나와 묶어서 조회할 칸들
+    private record Batch(boolean byOrigin, int anchor, int[] cells) {
+    }
+
+    // summaries는 cells 순서대로 [duration, distance]를 번갈아 담고, 실패한 칸은 -1입니다.
+    private record Filled(int[] cells, int[] summaries) {
+        void writeTo(int[] durations, int[] distances) {
+            for (int i = 0; i < cells.length; i++) {
+                durations[cells[i]] = summaries[i * 2];
+                distances[cells[i]] = summaries[i * 2 + 1];
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package hackathon.chatbot.Session;
+
+import com.google.cloud.vertexai.api.Content;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 한 사용자(세션)의 대화 기록.
+ * 같은 세션의 턴은 큐에 넣어 하나씩 순서대로 실행하므로 history 리스트를 동시에 수정하는 일이 없습니다.
+ * 한 번 시작된 턴은 클라이언트가 연결을 끊어도 끝까지 실행되어 기록이 중간에 잘리지 않습니다.
+ * repository가 있으면 첫 턴 전에 저장된 기록을 불러오고, 턴이 끝날 때마다 기록을 저장 대기열에 넣습니다.
+ */
+public class ConversationSession {
+
+    private final String id;
+    private final List<Content> history = new ArrayList<>();
+    // history와 같은 순서로 항목별 크기/토큰 수를 들고 있어, 턴마다 새로 붙은 항목만 잽니다.
+    private final List<HistoryCompactor.Size> sizes = new ArrayList<>();
+    private final HistoryCompactor compactor;
+    // null이면 메모리에만 둡니다.
+    private final HistoryRepository repository;
+    private final Sinks.Many<Turn<?>> turns = Sinks.many().unicast().onBackpressureBuffer();
+    private final Disposable worker;
+
+    private volatile long lastAccessNanos = System.nanoTime();
+    private volatile long approxBytes;
+    private volatile long historyTokens;
+    private int pendingTurns;
+    private boolean closed;
+    // 턴은 worker에서 하나씩만 실행되므로 restored는 턴 안에서만 읽고 씁니다.
+    private boolean restored;
+
+    ConversationSession(String id, HistoryCompactor compactor, HistoryRepository repository) {
+        this.id = id;
+        this.compactor = compactor;
+        this.repository = repository;
+        this.worker = turns.asFlux()
+                .concatMap(Turn::run, 1)
+                .subscribe();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 턴을 예약합니다. 이미 정리된 세션이면 false를 돌려주고, 호출한 쪽은 새 세션을 받아 다시 시도합니다.
+     * true를 받았다면 반드시 {@link #submit}으로 턴을 넘겨야 합니다.
+     */
+    synchronized boolean tryEnter() {
+        if (closed) {
+            return false;
+        }
+        pendingTurns++;
+        touch();
+        return true;
+    }
+
+    /**
+     * 이 세션의 history를 넘겨 턴을 실행합니다. 앞선 턴이 끝난 뒤에야 시작되며,
+     * 반환된 Flux는 턴이 내보내는 값을 그대로 전달합니다.
+     */
+    <T> Flux<T> submit(Function<List<Content>, ? extends Publisher<T>> body) {
+        Turn<T> turn = new Turn<>(body);
+        turns.emitNext(turn, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+        return turn.output.asFlux();
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    long getApproxBytes() {
+        return approxBytes;
+    }
+
+    long getHistoryTokens() {
+        return historyTokens;
+    }
+
+    synchronized boolean isBusy() {
+        return pendingTurns > 0;
+    }
+
+    // 진행 중이거나 예약된 턴이 없을 때만 닫습니다.
+    synchronized boolean tryClose() {
+        if (pendingTurns > 0) {
+            return false;
+        }
+        closed = true;
+        worker.dispose();
+        return true;
+    }
+
+    private void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+
+    // 저장된 기록을 앞에 붙입니다. 읽기에 실패하면 이번 턴은 메모리 기록만으로 진행하고,
+    // 저장된 기록을 덮어쓰지 않도록 불러오기에 성공할 때까지 저장도 하지 않습니다.
+    private Mono<Void> restore() {
+        if (repository == null || restored) {
+            return Mono.empty();
+        }
+        return repository.load(id)
+                .doOnNext(saved -> {
+                    long bytes = approxBytes;
+                    long tokens = historyTokens;
+                    List<HistoryCompactor.Size> savedSizes = new ArrayList<>(saved.size());
+                    for (Content content : saved) {
+                        HistoryCompactor.Size size = HistoryCompactor.Size.of(content);
+                        savedSizes.add(size);
+                        bytes += size.bytes();
+                        tokens += size.tokens();
+                    }
+                    history.addAll(0, saved);
+                    sizes.addAll(0, savedSizes);
+                    approxBytes = bytes;
+                    historyTokens = tokens;
+                    restored = true;
+                })
+                .onErrorResume(e -> {
+                    System.err.println("대화 기록 불러오기 실패 (" + id + "): " + e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    // 턴이 끝난 뒤 새로 붙은 Content만 재서 합계를 갱신하고, 오래된 턴을 토큰 예산에 맞게 줄입니다.
+    private void afterTurn() {
+        long bytes = approxBytes;
+        long tokens = historyTokens;
+        for (int i = sizes.size(); i < history.size(); i++) {
+            HistoryCompactor.Size size = HistoryCompactor.Size.of(history.get(i));
+            sizes.add(size);
+            bytes += size.bytes();
+            tokens += size.tokens();
+        }
+        if (tokens > compactor.getTokenBudget()) {
+            compactor.compact(history, sizes);
+            bytes = 0;
+            tokens = 0;
+            for (HistoryCompactor.Size size : sizes) {
+                bytes += size.bytes();
+                tokens += size.tokens();
+            }
+        }
+        approxBytes = bytes;
+        historyTokens = tokens;
+        if (restored) {
+            repository.save(id, history);
+        }
+        touch();
+        synchronized (this) {
+            pendingTurns--;
+        }
+    }
+
+    private final class Turn<T> {
+
+        private final Function<List<Content>, ? extends Publisher<T>> body;
+        private final Sinks.Many<T> output = Sinks.many().unicast().onBackpressureBuffer();
+
+        private Turn(Function<List<Content>, ? extends Publisher<T>> body) {
+            this.body = body;
+        }
+
+        private Mono<Void> run() {
+            // 기록 정리를 먼저 끝낸 뒤 완료를 알려, 호출한 쪽이 다음 턴을 보낼 때 이전 턴이 확실히 끝나 있도록 합니다.
+            return restore().thenMany(Flux.defer(() -> body.apply(history)))
+                    .doOnNext(output::tryEmitNext)
+                    .doOnError(e -> {
+                        afterTurn();
+                        output.tryEmitError(e);
+                    })
+                    .doOnComplete(() -> {
+                        afterTurn();
+                        output.tryEmitComplete();
+                    })
+                    .doOnCancel(ConversationSession.this::afterTurn)
+                    .onErrorResume(e -> Mono.empty())
+                    .then();
+        }
+    }
+}
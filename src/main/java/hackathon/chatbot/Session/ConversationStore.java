@@ -0,0 +1,139 @@
+package hackathon.chatbot.Session;
+
+import com.google.cloud.vertexai.api.Content;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 세션 ID별 대화 기록 저장소.
+ * 일정 시간 사용되지 않은 세션은 정리하고, 세션 수와 전체 기록 크기가 한도를 넘으면
+ * 가장 오래 사용되지 않은(진행 중인 턴이 없는) 세션부터 내보냅니다.
+ * {@link HistoryRepository} 빈이 있으면 세션은 첫 턴에서 저장된 기록을 읽고 턴마다 기록을 저장 대기열에 넣습니다.
+ * 메모리의 세션이 먼저 쓰이므로, 여러 인스턴스를 둘 때는 같은 세션의 요청이 같은 인스턴스로 가도록(sticky) 두는 것을 전제로 합니다.
+ */
+@Component
+public class ConversationStore {
+
+    private final Duration idleTtl;
+    private final Duration sweepInterval;
+    private final int maxSessions;
+    private final long maxTotalBytes;
+    private final HistoryCompactor historyCompactor;
+    private final HistoryRepository historyRepository;
+
+    private final Map<String, ConversationSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private Disposable sweeper;
+
+    public ConversationStore(@Value("${chatbot.session.idle-ttl:30m}") Duration idleTtl,
+                             @Value("${chatbot.session.sweep-interval:1m}") Duration sweepInterval,
+                             @Value("${chatbot.session.max-sessions:10000}") int maxSessions,
+                             @Value("${chatbot.session.max-total-bytes:268435456}") long maxTotalBytes,
+                             HistoryCompactor historyCompactor,
+                             ObjectProvider<HistoryRepository> historyRepository) {
+        this.idleTtl = idleTtl;
+        this.sweepInterval = sweepInterval;
+        this.maxSessions = maxSessions;
+        this.maxTotalBytes = maxTotalBytes;
+        this.historyCompactor = historyCompactor;
+        this.historyRepository = historyRepository.getIfAvailable();
+    }
+
+    @PostConstruct
+    public void start() {
+        sweeper = Flux.interval(sweepInterval, Schedulers.parallel())
+                .subscribe(tick -> sweep());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.dispose();
+        }
+        sessions.values().forEach(ConversationSession::tryClose);
+    }
+
+    /**
+     * 세션의 대화 기록으로 한 턴을 실행합니다. 같은 세션의 턴은 도착한 순서대로 하나씩 실행됩니다.
+     */
+    public <T> Flux<T> runTurn(String sessionId, Function<List<Content>, ? extends Publisher<T>> body) {
+        // 턴은 세션 대기열에서 구독되므로, 호출한 쪽의 Reactor Context(우선순위, 메트릭 등)를 직접 넘겨 줍니다.
+        return Flux.deferContextual(context -> {
+            Function<List<Content>, Publisher<T>> turn = history -> Flux.from(body.apply(history)).contextWrite(context);
+            while (true) {
+                ConversationSession session = sessions.computeIfAbsent(sessionId, id -> {
+                    created.incrementAndGet();
+                    return new ConversationSession(id, historyCompactor, historyRepository);
+                });
+                if (session.tryEnter()) {
+                    if (sessions.size() > maxSessions) {
+                        sweep();
+                    }
+                    return session.submit(turn);
+                }
+                // 방금 정리된 세션을 집은 경우: 맵에서 치우고 새 세션으로 다시 시도
+                sessions.remove(sessionId, session);
+            }
+        });
+    }
+
+    public int liveSessions() {
+        return sessions.size();
+    }
+
+    public Stats stats() {
+        long totalBytes = sessions.values().stream().mapToLong(ConversationSession::getApproxBytes).sum();
+        long historyTokens = sessions.values().stream().mapToLong(ConversationSession::getHistoryTokens).sum();
+        return new Stats(sessions.size(), created.get(), evicted.get(), totalBytes, historyTokens);
+    }
+
+    void sweep() {
+        long now = System.nanoTime();
+        long ttlNanos = idleTtl.toNanos();
+        sessions.values().removeIf(session -> {
+            if (now - session.getLastAccessNanos() > ttlNanos && session.tryClose()) {
+                evicted.incrementAndGet();
+                return true;
+            }
+            return false;
+        });
+
+        long totalBytes = sessions.values().stream().mapToLong(ConversationSession::getApproxBytes).sum();
+        if (sessions.size() <= maxSessions && totalBytes <= maxTotalBytes) {
+            return;
+        }
+        List<ConversationSession> idleFirst = sessions.values().stream()
+                .filter(session -> !session.isBusy())
+                .sorted(Comparator.comparingLong(ConversationSession::getLastAccessNanos))
+                .toList();
+        for (ConversationSession session : idleFirst) {
+            if (sessions.size() <= maxSessions && totalBytes <= maxTotalBytes) {
+                break;
+            }
+            if (session.tryClose()) {
+                sessions.remove(session.getId(), session);
+                totalBytes -= session.getApproxBytes();
+                evicted.incrementAndGet();
+            }
+        }
+    }
+
+    public record Stats(int liveSessions, long created, long evicted, long totalBytes, long historyTokens) {
+    }
+}
@@ -0,0 +1,174 @@
+package hackathon.chatbot.Session;
+
+import com.google.cloud.vertexai.api.Content;
+import com.google.cloud.vertexai.api.FunctionResponse;
+import com.google.cloud.vertexai.api.Part;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * 매 요청에 통째로 실리는 대화 기록을 토큰 예산 안으로 줄입니다.
+ * 최근 keepRecentTurns개 턴은 그대로 두고, 그보다 오래된 턴은
+ * 1) 도구 결과(FunctionResponse)를 장소 이름만 남긴 요약으로 바꾸고
+ * 2) 그래도 예산을 넘으면 가장 오래된 턴부터 통째로 버립니다.
+ * 턴 단위로만 버리므로 함수 호출과 그 응답이 짝을 잃는 일은 없습니다.
+ * 토큰 수는 Content마다 한 번만 추정해 {@link Size}로 history와 나란히 들고 다닙니다.
+ */
+@Component
+public class HistoryCompactor {
+
+    private final int tokenBudget;
+    private final int keepRecentTurns;
+
+    public HistoryCompactor(@org.springframework.beans.factory.annotation.Value("${chatbot.history.token-budget:8000}") int tokenBudget,
+                            @org.springframework.beans.factory.annotation.Value("${chatbot.history.keep-recent-turns:3}") int keepRecentTurns) {
+        this.tokenBudget = tokenBudget;
+        this.keepRecentTurns = keepRecentTurns;
+    }
+
+    /**
+     * history와 sizes(같은 순서, 같은 길이)를 함께 줄입니다.
+     * 최근 턴만으로 예산을 넘으면 최근 턴은 건드리지 않으므로 결과가 예산보다 클 수 있습니다.
+     */
+    public void compact(List<Content> history, List<Size> sizes) {
+        List<Integer> turnStarts = turnStarts(history);
+        if (turnStarts.size() <= keepRecentTurns) {
+            return;
+        }
+        int recentFrom = turnStarts.get(turnStarts.size() - keepRecentTurns);
+        for (int i = 0; i < recentFrom; i++) {
+            Content compacted = summarizeToolResults(history.get(i));
+            if (compacted != null) {
+                history.set(i, compacted);
+                sizes.set(i, Size.of(compacted));
+            }
+        }
+
+        long total = 0;
+        for (Size size : sizes) {
+            total += size.tokens();
+        }
+        int dropTo = 0;
+        for (int t = 1; t < turnStarts.size() && total > tokenBudget && turnStarts.get(t) <= recentFrom; t++) {
+            for (int i = turnStarts.get(t - 1); i < turnStarts.get(t); i++) {
+                total -= sizes.get(i).tokens();
+            }
+            dropTo = turnStarts.get(t);
+        }
+        if (dropTo > 0) {
+            history.subList(0, dropTo).clear();
+            sizes.subList(0, dropTo).clear();
+        }
+    }
+
+    // 사용자가 직접 보낸 질문(텍스트가 있는 user Content)이 턴의 시작입니다. 도구 결과도 role이 user라서 텍스트로 구분합니다.
+    // 첫 질문 앞에 남은 항목(중간에 끊긴 턴 등)이 있으면 0부터를 한 턴으로 봅니다.
+    private static List<Integer> turnStarts(List<Content> history) {
+        List<Integer> starts = new ArrayList<>();
+        if (!history.isEmpty()) {
+            starts.add(0);
+        }
+        for (int i = 1; i < history.size(); i++) {
+            Content content = history.get(i);
+            if ("user".equals(content.getRole()) && content.getPartsList().stream().anyMatch(Part::hasText)) {
+                starts.add(i);
+            }
+        }
+        return starts;
+    }
+
+    // 도구 결과가 없거나 이미 요약된 Content면 null
+    private static Content summarizeToolResults(Content content) {
+        if (content.getPartsList().stream().noneMatch(HistoryCompactor::isFullToolResult)) {
+            return null;
+        }
+        Content.Builder builder = content.toBuilder().clearParts();
+        for (Part part : content.getPartsList()) {
+            builder.addParts(isFullToolResult(part) ? Part.newBuilder().setFunctionResponse(summarize(part.getFunctionResponse())).build() : part);
+        }
+        return builder.build();
+    }
+
+    private static boolean isFullToolResult(Part part) {
+        return part.hasFunctionResponse() && !part.getFunctionResponse().getResponse().containsFields("summary");
+    }
+
+    // 장소 목록은 이름만 남깁니다. 자세한 정보는 이미 그 턴의 모델 답변에 들어 있습니다.
+    private static FunctionResponse summarize(FunctionResponse response) {
+        Struct fields = response.getResponse();
+        StringJoiner names = new StringJoiner(", ");
+        for (Value place : fields.getFieldsOrDefault("places", Value.getDefaultInstance()).getListValue().getValuesList()) {
+            names.add(place.getStructValue().getFieldsOrDefault("place_name", Value.getDefaultInstance()).getStringValue());
+        }
+        String summary = names.length() > 0 ? "places: " + names : "details omitted";
+        return response.toBuilder()
+                .setResponse(Struct.newBuilder()
+                        .putFields("status", fields.getFieldsOrDefault("status", Value.newBuilder().setStringValue("unknown").build()))
+                        .putFields("summary", Value.newBuilder().setStringValue(summary).build()))
+                .build();
+    }
+
+    public int getTokenBudget() {
+        return tokenBudget;
+    }
+
+    /**
+     * 토큰 수 추정. 영문/숫자는 4자, 한글 등은 1.5자에 1토큰 정도로 셉니다.
+     * 실제 토크나이저(countTokens)는 네트워크 호출이라 매 턴 부를 수 없어 근사치를 씁니다.
+     */
+    static int estimateTokens(Content content) {
+        long tokens = 0;
+        for (Part part : content.getPartsList()) {
+            if (part.hasText()) {
+                tokens += estimateTokens(part.getText());
+            } else if (part.hasFunctionCall()) {
+                tokens += estimateTokens(part.getFunctionCall().getName()) + estimateTokens(part.getFunctionCall().getArgs());
+            } else if (part.hasFunctionResponse()) {
+                tokens += estimateTokens(part.getFunctionResponse().getName()) + estimateTokens(part.getFunctionResponse().getResponse());
+            }
+        }
+        return (int) Math.min(tokens, Integer.MAX_VALUE);
+    }
+
+    private static long estimateTokens(Struct struct) {
+        long tokens = 0;
+        for (var field : struct.getFieldsMap().entrySet()) {
+            tokens += estimateTokens(field.getKey()) + estimateTokens(field.getValue());
+        }
+        return tokens;
+    }
+
+    private static long estimateTokens(Value value) {
+        return switch (value.getKindCase()) {
+            case STRING_VALUE -> estimateTokens(value.getStringValue());
+            case STRUCT_VALUE -> estimateTokens(value.getStructValue());
+            case LIST_VALUE -> value.getListValue().getValuesList().stream().mapToLong(HistoryCompactor::estimateTokens).sum();
+            default -> 1;
+        };
+    }
+
+    private static long estimateTokens(String text) {
+        long ascii = 0;
+        long other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 0x80) {
+                ascii++;
+            } else {
+                other++;
+            }
+        }
+        return (ascii + 3) / 4 + (other * 2 + 2) / 3;
+    }
+
+    /** history 항목 하나의 직렬화 크기와 추정 토큰 수. */
+    public record Size(int bytes, int tokens) {
+        public static Size of(Content content) {
+            return new Size(content.getSerializedSize(), estimateTokens(content));
+        }
+    }
+}
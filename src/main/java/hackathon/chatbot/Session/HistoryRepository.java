@@ -0,0 +1,19 @@
+package hackathon.chatbot.Session;
+
+import com.google.cloud.vertexai.api.Content;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 세션 대화 기록의 영구 저장소. {@link ConversationStore}의 메모리 세션이 앞단(hot tier) 역할을 하고,
+ * 이 저장소는 세션이 메모리에 없을 때(재시작, 정리된 세션, 다른 인스턴스로 넘어온 요청)만 읽습니다.
+ */
+public interface HistoryRepository {
+
+    /** 저장된 기록. 없으면 빈 리스트를 내보냅니다. 블로킹 IO는 구현체가 알아서 다른 스레드로 넘깁니다. */
+    Mono<List<Content>> load(String sessionId);
+
+    /** 턴이 끝난 뒤의 기록 전체를 저장 대기열에 넣습니다. 호출한 스레드를 막지 않습니다. */
+    void save(String sessionId, List<Content> history);
+}
@@ -0,0 +1,220 @@
+package hackathon.chatbot.Session;
+
+import com.google.cloud.vertexai.api.Content;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 대화 기록을 MySQL에 write-behind로 저장합니다.
+ * save는 세션별 최신 기록을 pending 맵에 넣기만 하고, flushInterval마다 blockingScheduler에서
+ * 최대 batchSize개씩 묶어 upsert합니다. 같은 세션의 여러 턴은 마지막 기록 하나로 합쳐져 한 번만 쓰입니다.
+ * 세션 기록은 Content protobuf를 길이 접두(delimited) 형식으로 이어 붙여 한 행에 저장합니다.
+ * 아직 쓰지 않은 기록은 load가 pending에서 바로 돌려주므로 방금 정리된 세션도 기록을 잃지 않습니다.
+ * 테이블은 시작할 때가 아니라 처음 DB를 쓸 때 만듭니다. DB에 닿지 않아도 애플리케이션은 뜨고,
+ * 그동안 load는 실패해 세션이 메모리 기록만으로 진행하며, 다음 flush에서 다시 시도합니다.
+ */
+public class JdbcHistoryRepository implements HistoryRepository {
+
+    static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS conversation_history (
+                session_id VARCHAR(128) NOT NULL PRIMARY KEY,
+                history MEDIUMBLOB NOT NULL,
+                updated_at TIMESTAMP(3) NOT NULL
+            )""";
+    private static final String UPSERT = "INSERT INTO conversation_history (session_id, history, updated_at) VALUES (?, ?, ?)"
+            + " ON DUPLICATE KEY UPDATE history = VALUES(history), updated_at = VALUES(updated_at)";
+    private static final String SELECT = "SELECT history FROM conversation_history WHERE session_id = ?";
+    private static final String PURGE = "DELETE FROM conversation_history WHERE updated_at < ?";
+    private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Scheduler blockingScheduler;
+    private final Duration flushInterval;
+    private final int batchSize;
+    private final int maxPending;
+    private final Duration retention;
+
+    // 세션 ID -> 아직 DB에 쓰지 않은 최신 기록
+    private final Map<String, List<Content>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private volatile boolean tableReady;
+    private long lastPurgeNanos;
+    private Disposable flusher;
+
+    public JdbcHistoryRepository(JdbcTemplate jdbcTemplate, Scheduler blockingScheduler, Duration flushInterval,
+                                 int batchSize, int maxPending, Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockingScheduler = blockingScheduler;
+        this.flushInterval = flushInterval;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.retention = retention;
+    }
+
+    @PostConstruct
+    public void start() {
+        lastPurgeNanos = System.nanoTime() - PURGE_INTERVAL.toNanos();
+        // concatMap으로 flush가 겹치지 않게 하고, flush가 길어져 밀린 tick은 버립니다.
+        flusher = Flux.interval(flushInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromRunnable(this::flush).subscribeOn(blockingScheduler), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.dispose();
+        }
+        flush();
+    }
+
+    @Override
+    public Mono<List<Content>> load(String sessionId) {
+        return Mono.defer(() -> {
+            List<Content> unwritten = pending.get(sessionId);
+            if (unwritten != null) {
+                return Mono.just(unwritten);
+            }
+            return Mono.fromCallable(() -> {
+                loads.incrementAndGet();
+                ensureTable();
+                List<byte[]> rows = jdbcTemplate.query(SELECT, (rs, rowNum) -> rs.getBytes(1), sessionId);
+                return rows.isEmpty() ? List.<Content>of() : decode(rows.get(0));
+            }).subscribeOn(blockingScheduler);
+        });
+    }
+
+    /**
+     * DB가 오래 응답하지 않아 pending이 maxPending개 세션을 넘으면 새 세션의 기록은 버립니다.
+     * 이미 대기 중인 세션은 최신 기록으로 바꿔 넣으므로 크기가 늘지 않습니다.
+     */
+    @Override
+    public void save(String sessionId, List<Content> history) {
+        List<Content> snapshot = List.copyOf(history);
+        if (pending.size() >= maxPending && !pending.containsKey(sessionId)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        pending.put(sessionId, snapshot);
+    }
+
+    void flush() {
+        boolean purgeDue = System.nanoTime() - lastPurgeNanos >= PURGE_INTERVAL.toNanos();
+        if (pending.isEmpty() && !purgeDue) {
+            return;
+        }
+        try {
+            ensureTable();
+        } catch (DataAccessException e) {
+            // pending에 그대로 남겨 두고 다음 flush에서 다시 시도합니다.
+            failures.incrementAndGet();
+            System.err.println("대화 기록 테이블 준비 실패: " + e.getMessage());
+            return;
+        }
+        List<Map.Entry<String, List<Content>>> batch = new ArrayList<>(batchSize);
+        for (Map.Entry<String, List<Content>> entry : pending.entrySet()) {
+            batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+        if (purgeDue) {
+            purgeExpired();
+        }
+    }
+
+    private void ensureTable() {
+        if (!tableReady) {
+            jdbcTemplate.execute(CREATE_TABLE);
+            tableReady = true;
+        }
+    }
+
+    private void write(List<Map.Entry<String, List<Content>>> batch) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try {
+            jdbcTemplate.batchUpdate(UPSERT, batch, batch.size(), (ps, entry) -> {
+                ps.setString(1, entry.getKey());
+                ps.setBytes(2, encode(entry.getValue()));
+                ps.setTimestamp(3, now);
+            });
+        } catch (DataAccessException e) {
+            // pending에 그대로 남겨 두고 다음 flush에서 다시 씁니다.
+            failures.incrementAndGet();
+            System.err.println("대화 기록 저장 실패 (" + batch.size() + "개 세션): " + e.getMessage());
+            return;
+        }
+        // 쓰는 동안 새 턴이 끝난 세션은 더 새로운 기록이 들어 있으므로 남겨 둡니다.
+        for (Map.Entry<String, List<Content>> entry : batch) {
+            pending.computeIfPresent(entry.getKey(), (id, current) -> current == entry.getValue() ? null : current);
+        }
+        written.addAndGet(batch.size());
+        batches.incrementAndGet();
+    }
+
+    private void purgeExpired() {
+        lastPurgeNanos = System.nanoTime();
+        try {
+            jdbcTemplate.update(PURGE, new Timestamp(System.currentTimeMillis() - retention.toMillis()));
+        } catch (DataAccessException e) {
+            failures.incrementAndGet();
+            System.err.println("오래된 대화 기록 삭제 실패: " + e.getMessage());
+        }
+    }
+
+    static byte[] encode(List<Content> history) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            for (Content content : history) {
+                content.writeDelimitedTo(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    static List<Content> decode(byte[] bytes) throws IOException {
+        ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+        List<Content> history = new ArrayList<>();
+        Content content;
+        while ((content = Content.parseDelimitedFrom(in)) != null) {
+            history.add(content);
+        }
+        return history;
+    }
+
+    public Stats stats() {
+        return new Stats(pending.size(), written.get(), batches.get(), failures.get(), dropped.get(), loads.get());
+    }
+
+    public record Stats(int pending, long written, long batches, long failures, long dropped, long loads) {
+    }
+}
@@ -0,0 +1,135 @@
+package hackathon.chatbot;
+
+import com.google.cloud.vertexai.api.Content;
+import com.google.cloud.vertexai.api.FunctionCall;
+import com.google.cloud.vertexai.api.GenerateContentResponse;
+import com.google.cloud.vertexai.api.Part;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 모델이 요청한 함수 호출을 실행하고 결과를 돌려주는 과정을 최종 답변이 나올 때까지 반복합니다.
+ * 한 응답에 담긴 함수 호출은 모두 동시에 실행해 하나의 Content로 돌려주고,
+ * 도구 라운드가 maxSteps에 이르거나 timeBudget이 지나면 도구 없이 답하도록 마지막 호출을 합니다.
+ * history는 한 대화 턴 안에서만 쓰이므로 라운드 사이에만 순서대로 추가합니다.
+ */
+final class ToolCallLoop {
+
+    /** 도구 사용 여부를 고를 수 있는 모델 호출. allowTools가 false면 함수 호출 없이 텍스트로만 답해야 합니다. */
+    interface Model {
+        Mono<GenerateContentResponse> generate(List<Content> history, boolean allowTools);
+
+        Flux<GenerateContentResponse> stream(List<Content> history, boolean allowTools);
+    }
+
+    private final Model model;
+    private final Function<FunctionCall, Mono<Part>> tools;
+    private final int maxSteps;
+    private final Duration timeBudget;
+    private final int maxParallel;
+
+    ToolCallLoop(Model model, Function<FunctionCall, Mono<Part>> tools, int maxSteps, Duration timeBudget, int maxParallel) {
+        this.model = model;
+        this.tools = tools;
+        this.maxSteps = maxSteps;
+        this.timeBudget = timeBudget;
+        this.maxParallel = maxParallel;
+    }
+
+    Mono<String> run(List<Content> history) {
+        return Mono.defer(() -> round(history, 0, System.nanoTime() + timeBudget.toNanos()));
+    }
+
+    // 도구 라운드 사이에도 텍스트 조각을 바로 흘려보냅니다. 함수 호출 조각은 모아 두었다가 응답이 끝나면 실행합니다.
+    Flux<String> stream(List<Content> history) {
+        return Flux.defer(() -> streamRound(history, 0, System.nanoTime() + timeBudget.toNanos()));
+    }
+
+    private Mono<String> round(List<Content> history, int step, long deadlineNanos) {
+        boolean allowTools = allowTools(step, deadlineNanos);
+        return model.generate(history, allowTools).flatMap(response -> {
+            StringBuilder text = new StringBuilder();
+            List<FunctionCall> calls = new ArrayList<>();
+            collect(response, text, calls);
+            if (!allowTools) {
+                calls.clear();
+            }
+            history.add(modelContent(text, calls));
+            if (calls.isEmpty()) {
+                return Mono.just(text.toString());
+            }
+            return execute(calls).flatMap(toolResponse -> {
+                history.add(toolResponse);
+                return round(history, step + 1, deadlineNanos);
+            });
+        });
+    }
+
+    private Flux<String> streamRound(List<Content> history, int step, long deadlineNanos) {
+        boolean allowTools = allowTools(step, deadlineNanos);
+        StringBuilder text = new StringBuilder();
+        List<FunctionCall> calls = new ArrayList<>();
+        return model.stream(history, allowTools)
+                .map(chunk -> {
+                    StringBuilder chunkText = new StringBuilder();
+                    collect(chunk, chunkText, calls);
+                    return chunkText.toString();
+                })
+                .filter(chunkText -> !chunkText.isEmpty())
+                .doOnNext(text::append)
+                .concatWith(Flux.defer(() -> {
+                    if (!allowTools) {
+                        calls.clear();
+                    }
+                    history.add(modelContent(text, calls));
+                    if (calls.isEmpty()) {
+                        return Flux.empty();
+                    }
+                    return execute(calls).flatMapMany(toolResponse -> {
+                        history.add(toolResponse);
+                        return streamRound(history, step + 1, deadlineNanos);
+                    });
+                }));
+    }
+
+    private boolean allowTools(int step, long deadlineNanos) {
+        return step < maxSteps && System.nanoTime() - deadlineNanos < 0;
+    }
+
+    // 결과 순서는 호출 순서를 따르고, FunctionResponse는 모두 role이 user인 Content 하나에 담습니다.
+    private Mono<Content> execute(List<FunctionCall> calls) {
+        return Flux.fromIterable(calls)
+                .flatMapSequential(tools, maxParallel)
+                .collectList()
+                .map(parts -> Content.newBuilder().addAllParts(parts).setRole("user").build());
+    }
+
+    private static void collect(GenerateContentResponse response, StringBuilder text, List<FunctionCall> calls) {
+        if (response.getCandidatesCount() == 0) {
+            return;
+        }
+        for (Part part : response.getCandidates(0).getContent().getPartsList()) {
+            if (part.hasFunctionCall()) {
+                calls.add(part.getFunctionCall());
+            } else if (part.hasText()) {
+                text.append(part.getText());
+            }
+        }
+    }
+
+    private static Content modelContent(CharSequence text, List<FunctionCall> calls) {
+        Content.Builder content = Content.newBuilder().setRole("model");
+        if (!text.isEmpty() || calls.isEmpty()) {
+            content.addParts(Part.newBuilder().setText(text.toString()));
+        }
+        for (FunctionCall call : calls) {
+            content.addParts(Part.newBuilder().setFunctionCall(call));
+        }
+        return content.build();
+    }
+}
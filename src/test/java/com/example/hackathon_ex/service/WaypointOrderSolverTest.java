@@ -0,0 +1,77 @@
+package com.example.hackathon_ex.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WaypointOrderSolverTest {
+
+    @Test
+    void exactSolverMatchesBruteForceOnAsymmetricMatrix() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            int[][] cost = randomMatrix(random, 7);
+            for (boolean fixEnd : new boolean[]{true, false}) {
+                int[] order = WaypointOrderSolver.solve(cost, fixEnd, Long.MAX_VALUE);
+
+                assertThat(order[0]).isZero();
+                if (fixEnd) {
+                    assertThat(order[order.length - 1]).isEqualTo(cost.length - 1);
+                }
+                assertThat(WaypointOrderSolver.pathCost(order, cost)).isEqualTo(bruteForce(cost, fixEnd));
+            }
+        }
+    }
+
+    @Test
+    void heuristicKeepsEndpointsAndVisitsEveryWaypoint() {
+        int[][] cost = randomMatrix(new Random(7), 20);
+
+        int[] order = WaypointOrderSolver.solve(cost, true, System.nanoTime() + 50_000_000L);
+
+        assertThat(order[0]).isZero();
+        assertThat(order[order.length - 1]).isEqualTo(19);
+        assertThat(order).containsExactlyInAnyOrder(IntStream.range(0, 20).toArray());
+    }
+
+    private static int[][] randomMatrix(Random random, int n) {
+        int[][] cost = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                cost[i][j] = i == j ? 0 : 60 + random.nextInt(3000);
+            }
+        }
+        return cost;
+    }
+
+    private static long bruteForce(int[][] cost, boolean fixEnd) {
+        int n = cost.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        return permute(order, 1, fixEnd ? n - 1 : n, cost);
+    }
+
+    private static long permute(int[] order, int from, int to, int[][] cost) {
+        if (from >= to) {
+            return WaypointOrderSolver.pathCost(order, cost);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = from; i < to; i++) {
+            swap(order, from, i);
+            best = Math.min(best, permute(order, from + 1, to, cost));
+            swap(order, from, i);
+        }
+        return best;
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
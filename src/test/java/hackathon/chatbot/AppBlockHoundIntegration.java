@@ -0,0 +1,21 @@
+package hackathon.chatbot;
+
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.integration.BlockHoundIntegration;
+
+/**
+ * 테스트 JVM에 설치되는 BlockHound 허용 목록.
+ * 캐시와 호출 제한기는 O(1) 작업만 잠금 안에서 하므로, 경합 때 잠깐 기다리는 것은 허용합니다.
+ */
+public class AppBlockHoundIntegration implements BlockHoundIntegration {
+
+    @Override
+    public void applyTo(BlockHound.Builder builder) {
+        builder.allowBlockingCallsInside("hackathon.chatbot.Cache.RouteCache", "get")
+                .allowBlockingCallsInside("hackathon.chatbot.Cache.RouteCache", "put")
+                .allowBlockingCallsInside("hackathon.chatbot.Resilience.TokenBucketLimiter", "admit")
+                .allowBlockingCallsInside("hackathon.chatbot.Resilience.TokenBucketLimiter", "tryAcquire")
+                .allowBlockingCallsInside("hackathon.chatbot.Resilience.TokenBucketLimiter", "drain")
+                .allowBlockingCallsInside("hackathon.chatbot.Resilience.TokenBucketLimiter", "remove");
+    }
+}
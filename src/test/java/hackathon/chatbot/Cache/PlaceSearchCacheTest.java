@@ -0,0 +1,58 @@
+package hackathon.chatbot.Cache;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlaceSearchCacheTest {
+
+    private static final List<Map<String, String>> PLACES = List.of(Map.of("place_name", "강남역 짜장집"));
+
+    @Test
+    void concurrentIdenticalSearchesShareOneUpstreamCall() {
+        PlaceSearchCache cache = new PlaceSearchCache(Duration.ofMinutes(1), 10);
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<List<Map<String, String>>> upstream = Sinks.one();
+
+        CompletableFuture<List<Map<String, String>>> first = cache.get("강남역 맛집", q -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        }).toFuture();
+        CompletableFuture<List<Map<String, String>>> second = cache.get("  강남역   맛집 ", q -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        }).toFuture();
+        upstream.tryEmitValue(PLACES);
+
+        assertThat(first.join()).isEqualTo(PLACES);
+        assertThat(second.join()).isEqualTo(PLACES);
+        assertThat(calls).hasValue(1);
+        assertThat(cache.stats().coalesced()).isEqualTo(1);
+    }
+
+    @Test
+    void failedSearchIsNotCached() {
+        PlaceSearchCache cache = new PlaceSearchCache(Duration.ofMinutes(1), 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.get("홍대 카페", q -> {
+            calls.incrementAndGet();
+            return Mono.<List<Map<String, String>>>error(new IllegalStateException("boom"));
+        }).onErrorResume(e -> Mono.empty()).block();
+        List<Map<String, String>> places = cache.get("홍대 카페", q -> {
+            calls.incrementAndGet();
+            return Mono.just(PLACES);
+        }).block();
+
+        assertThat(places).isEqualTo(PLACES);
+        assertThat(calls).hasValue(2);
+    }
+}
@@ -0,0 +1,66 @@
+package hackathon.chatbot.Cache;
+
+import hackathon.chatbot.Dto.DirectionsLeg;
+import hackathon.chatbot.Geo.RouteGeometry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteCacheTest {
+
+    @Test
+    void nearbyCoordinatesShareAGridCell() {
+        RouteCache cache = new RouteCache(50, Duration.ofMinutes(10), 100, 1_000);
+
+        // 격자 셀 중심(강남역 부근)에서 약 10m 떨어진 지점은 같은 키, 약 200m 떨어진 지점은 다른 키
+        double centerY = 83_485 * 50 / 111_320.0;
+        double centerX = 224_378 * 50 / (111_320.0 * Math.cos(Math.toRadians(centerY)));
+        RouteCache.Key key = cache.keyOf(centerX, centerY, 127.1, 37.5);
+        assertThat(cache.keyOf(centerX + 0.0001, centerY + 0.00005, 127.1, 37.5)).isEqualTo(key);
+        assertThat(cache.keyOf(centerX + 0.0022, centerY, 127.1, 37.5)).isNotEqualTo(key);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        RouteCache cache = new RouteCache(50, Duration.ofMinutes(10), 2, 1_000);
+        RouteCache.Key a = cache.keyOf(127.0, 37.0, 127.1, 37.1);
+        RouteCache.Key b = cache.keyOf(127.0, 37.0, 127.2, 37.2);
+        RouteCache.Key c = cache.keyOf(127.0, 37.0, 127.3, 37.3);
+
+        cache.put(a, leg(4));
+        cache.put(b, leg(4));
+        cache.get(a);
+        cache.put(c, leg(4));
+
+        assertThat(cache.get(a)).isNotNull();
+        assertThat(cache.get(b)).isNull();
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void boundsStoredVertexes() {
+        RouteCache cache = new RouteCache(50, Duration.ofMinutes(10), 100, 10);
+        cache.put(cache.keyOf(127.0, 37.0, 127.1, 37.1), leg(6));
+        cache.put(cache.keyOf(127.0, 37.0, 127.2, 37.2), leg(6));
+
+        assertThat(cache.stats().size()).isEqualTo(1);
+        assertThat(cache.stats().vertexes()).isEqualTo(6);
+    }
+
+    @Test
+    void expiredEntriesCountAsMisses() {
+        RouteCache cache = new RouteCache(50, Duration.ZERO, 100, 1_000);
+        RouteCache.Key key = cache.keyOf(127.0, 37.0, 127.1, 37.1);
+        cache.put(key, leg(4));
+
+        assertThat(cache.get(key)).isNull();
+        assertThat(cache.stats().expirations()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(1);
+    }
+
+    private static DirectionsLeg leg(int coordinates) {
+        return new DirectionsLeg(60, 500, RouteGeometry.of(new double[coordinates]));
+    }
+}
@@ -0,0 +1,157 @@
+package hackathon.chatbot.Cache;
+
+import hackathon.chatbot.Dto.DirectionsLeg;
+import hackathon.chatbot.Geo.RouteGeometry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteStoreTest {
+
+    private static final int MAX_BYTES = 1 << 20;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopenedStoreServesPreviouslyWrittenRoutes() throws IOException {
+        Path path = dir.resolve("routes.seg");
+        RouteStore store = RouteStore.open(path, Duration.ofHours(1), MAX_BYTES);
+        // 색인이 몇 번 커지도록 최소 슬롯 수보다 많이 씁니다.
+        for (int i = 0; i < 3_000; i++) {
+            store.put(key(i), leg(i, 3));
+        }
+        store.flush();
+        store.put(key(7), leg(700, 5));
+        store.close();
+
+        RouteStore reopened = RouteStore.open(path, Duration.ofHours(1), MAX_BYTES);
+
+        assertThat(reopened.stats().entries()).isEqualTo(3_000);
+        assertThat(reopened.stats().deadBytes()).isEqualTo(RouteStore.RECORD_HEADER_BYTES + 3 * 16);
+        assertLeg(reopened.get(key(2_999)), 2_999, 3);
+        assertLeg(reopened.get(key(7)), 700, 5);
+        assertThat(reopened.get(key(3_000))).isNull();
+        assertThat(reopened.stats().hits()).isEqualTo(2);
+        assertThat(reopened.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void recoveryStopsAtCorruptedRecordAndOverwritesIt() throws IOException {
+        Path path = dir.resolve("routes.seg");
+        RouteStore store = RouteStore.open(path, Duration.ofHours(1), MAX_BYTES);
+        store.put(key(1), leg(1, 2));
+        store.put(key(2), leg(2, 2));
+        store.close();
+        // 두 번째 레코드의 마지막 좌표를 망가뜨립니다(쓰다가 멈춘 경우).
+        int recordBytes = RouteStore.RECORD_HEADER_BYTES + 2 * 16;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), RouteStore.HEADER_BYTES + recordBytes * 2L - 3);
+        }
+
+        RouteStore reopened = RouteStore.open(path, Duration.ofHours(1), MAX_BYTES);
+        assertLeg(reopened.get(key(1)), 1, 2);
+        assertThat(reopened.get(key(2))).isNull();
+        reopened.put(key(3), leg(3, 2));
+        reopened.close();
+
+        RouteStore again = RouteStore.open(path, Duration.ofHours(1), MAX_BYTES);
+        assertThat(again.stats().entries()).isEqualTo(2);
+        assertLeg(again.get(key(3)), 3, 2);
+    }
+
+    @Test
+    void compactionDropsOverwrittenAndExpiredRecords() throws Exception {
+        Path path = dir.resolve("routes.seg");
+        RouteStore store = RouteStore.open(path, Duration.ofMillis(200), MAX_BYTES);
+        store.put(key(1), leg(1, 4));
+        Thread.sleep(300);
+        for (int i = 0; i < 10; i++) {
+            store.put(key(2), leg(i, 4));
+            store.flush();
+        }
+
+        assertThat(store.get(key(1))).isNull();
+        assertThat(store.stats().expirations()).isEqualTo(1);
+        store.compact();
+
+        int recordBytes = RouteStore.RECORD_HEADER_BYTES + 4 * 16;
+        assertThat(store.stats().entries()).isEqualTo(1);
+        assertThat(store.stats().bytes()).isEqualTo(RouteStore.HEADER_BYTES + recordBytes);
+        assertThat(store.stats().deadBytes()).isZero();
+        assertLeg(store.get(key(2)), 9, 4);
+        store.close();
+
+        assertLeg(RouteStore.open(path, Duration.ofHours(1), MAX_BYTES).get(key(2)), 9, 4);
+    }
+
+    @Test
+    void getMissesInsteadOfWaitingWhileWriterHoldsLock() throws Exception {
+        RouteStore store = RouteStore.open(dir.resolve("routes.seg"), Duration.ofHours(1), MAX_BYTES);
+        store.put(key(1), leg(1, 2));
+        store.flush();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread writer = new Thread(() -> {
+            store.lock.writeLock().lock();
+            try {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                store.lock.writeLock().unlock();
+            }
+        });
+        writer.start();
+        locked.await();
+
+        // parallel 스레드는 BlockHound가 블로킹을 막으므로, 잠금을 기다리면 여기서 실패합니다.
+        DirectionsLeg whileLocked = Mono.fromCallable(() -> store.get(key(1)))
+                .subscribeOn(Schedulers.parallel())
+                .block(Duration.ofSeconds(2));
+        release.countDown();
+        writer.join();
+
+        assertThat(whileLocked).isNull();
+        assertLeg(store.get(key(1)), 1, 2);
+        store.close();
+    }
+
+    private static RouteCache.Key key(int i) {
+        return new RouteCache.Key(83_485, 224_378, 83_000 + i, 224_000 - i);
+    }
+
+    // 좌표에 id를 넣어 어떤 레코드가 읽혔는지 확인합니다.
+    private static DirectionsLeg leg(int id, int points) {
+        double[] coordinates = new double[points * 2];
+        for (int i = 0; i < points; i++) {
+            coordinates[i * 2] = 127.0 + id * 1e-6 + i * 1e-4;
+            coordinates[i * 2 + 1] = 37.5 + i * 1e-4;
+        }
+        return new DirectionsLeg(id, id * 10, RouteGeometry.of(coordinates));
+    }
+
+    private static void assertLeg(DirectionsLeg actual, int id, int points) {
+        DirectionsLeg expected = leg(id, points);
+        assertThat(actual).isNotNull();
+        assertThat(actual.getDuration()).isEqualTo(expected.getDuration());
+        assertThat(actual.getDistance()).isEqualTo(expected.getDistance());
+        assertThat(actual.getGeometry().pointCount()).isEqualTo(points);
+        for (int i = 0; i < points; i++) {
+            assertThat(actual.getGeometry().x(i)).isEqualTo(expected.getGeometry().x(i));
+            assertThat(actual.getGeometry().y(i)).isEqualTo(expected.getGeometry().y(i));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package hackathon.chatbot.Contorller;
+
+import hackathon.chatbot.Dto.ChatRequest;
+import hackathon.chatbot.Metrics.UpstreamMetrics;
+import hackathon.chatbot.Resilience.UpstreamOverloadedException;
+import hackathon.chatbot.Service.ChatbotService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChatbotControllerTest {
+
+    @Test
+    void overloadAfterSessionEventEndsStreamWithErrorEvent() {
+        ChatbotService chatbotService = mock(ChatbotService.class);
+        when(chatbotService.streamChatbotResponse(any(), any(), any()))
+                .thenReturn(Flux.concat(Flux.just("강남역"), Flux.error(new UpstreamOverloadedException("vertex-ai", Duration.ofSeconds(3)))));
+        ChatbotController controller = new ChatbotController(chatbotService, new UpstreamMetrics(new SimpleMeterRegistry()));
+        ChatRequest request = new ChatRequest();
+        request.setSessionId("s1");
+
+        List<ServerSentEvent<Object>> events = controller.askStream(request).collectList().block();
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("session", "token", "error");
+        ServerSentEvent<Object> error = events.get(2);
+        assertThat(error.retry()).isEqualTo(Duration.ofSeconds(3));
+        assertThat(error.data()).isEqualTo(Map.of("error", "upstream_overloaded", "upstream", "vertex-ai", "retryAfter", 3L));
+    }
+
+    @Test
+    void upstreamFailureEndsStreamWithErrorEventInsteadOfToken() {
+        ChatbotService chatbotService = mock(ChatbotService.class);
+        when(chatbotService.streamChatbotResponse(any(), any(), any()))
+                .thenReturn(Flux.error(new IllegalStateException("vertex down")));
+        ChatbotController controller = new ChatbotController(chatbotService, new UpstreamMetrics(new SimpleMeterRegistry()));
+        ChatRequest request = new ChatRequest();
+        request.setSessionId("s1");
+
+        List<ServerSentEvent<Object>> events = controller.askStream(request).collectList().block();
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("session", "error");
+        assertThat(events.get(1).data()).isEqualTo(Map.of("error", "upstream_failed"));
+    }
+}
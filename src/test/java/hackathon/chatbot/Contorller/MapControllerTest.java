@@ -0,0 +1,30 @@
+package hackathon.chatbot.Contorller;
+
+import hackathon.chatbot.Metrics.UpstreamMetrics;
+import hackathon.chatbot.Service.FairMeetPointService;
+import hackathon.chatbot.Service.TravelMatrixService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class MapControllerTest {
+
+    private final MapController controller = new MapController(mock(FairMeetPointService.class),
+            mock(TravelMatrixService.class), new UpstreamMetrics(new SimpleMeterRegistry()));
+
+    @Test
+    void unknownModeIsBadRequest() {
+        assertThatThrownBy(() -> controller.getMiddlePoint(List.of(), "fastest"))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                    assertThat(e.getReason()).contains("centroid, min_max, min_sum");
+                });
+    }
+}
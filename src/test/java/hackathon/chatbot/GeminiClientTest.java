@@ -0,0 +1,91 @@
+package hackathon.chatbot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.vertexai.api.Content;
+import com.google.cloud.vertexai.api.GenerateContentResponse;
+import com.google.cloud.vertexai.generativeai.GenerativeModel;
+import com.google.cloud.vertexai.generativeai.ResponseStream;
+import hackathon.chatbot.Metrics.UpstreamMetrics;
+import hackathon.chatbot.Resilience.TokenBucketLimiter;
+import hackathon.chatbot.Resilience.UpstreamOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GeminiClientTest {
+
+    private final Scheduler blockingScheduler = Schedulers.newBoundedElastic(2, 16, "gemini-blocking");
+    // 초당 20개, 버스트 1: 토큰 하나를 먼저 써 두면 다음 호출은 대기열에서 제한기 타이머로 풀려납니다.
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter("test", 20, 1, 10, Duration.ofSeconds(2),
+            new SimpleMeterRegistry());
+    private final GeminiClient client = new GeminiClient(new ObjectMapper(), new UpstreamMetrics(new SimpleMeterRegistry()),
+            limiter, blockingScheduler, "key", "model", "project", 4, Duration.ofSeconds(8), 4, GeminiClient.INIT_LAZY);
+
+    @AfterEach
+    void disposeScheduler() {
+        blockingScheduler.dispose();
+    }
+
+    @Test
+    void queuedGenerateStillRunsOnBlockingScheduler() throws Exception {
+        GenerativeModel model = mock(GenerativeModel.class);
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(model.generateContent(anyList())).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return GenerateContentResponse.getDefaultInstance();
+        });
+
+        limiter.acquire().block();
+        client.generate(model, List.of(Content.getDefaultInstance())).block(Duration.ofSeconds(2));
+
+        assertThat(thread.get()).startsWith("gemini-blocking");
+    }
+
+    @Test
+    void queuedStreamIteratesOnBlockingScheduler() throws Exception {
+        GenerativeModel model = mock(GenerativeModel.class);
+        @SuppressWarnings("unchecked")
+        ResponseStream<GenerateContentResponse> stream = mock(ResponseStream.class);
+        AtomicReference<String> thread = new AtomicReference<>();
+        List<GenerateContentResponse> chunks = List.of(GenerateContentResponse.getDefaultInstance());
+        when(stream.spliterator()).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return chunks.spliterator();
+        });
+        when(stream.iterator()).thenAnswer(invocation -> chunks.iterator());
+        when(model.generateContentStream(anyList())).thenReturn(stream);
+
+        limiter.acquire().block();
+        client.generateStream(model, List.of(Content.getDefaultInstance())).blockLast(Duration.ofSeconds(2));
+
+        assertThat(thread.get()).startsWith("gemini-blocking");
+    }
+
+    @Test
+    void failedTurnLeavesHistoryUntouched() {
+        // 대기열이 없는 제한기: 토큰을 다 쓰면 다음 호출은 바로 과부하로 실패합니다.
+        TokenBucketLimiter full = new TokenBucketLimiter("test", 0.001, 1, 0, Duration.ofSeconds(1), new SimpleMeterRegistry());
+        full.acquire().block();
+        GeminiClient shedding = new GeminiClient(new ObjectMapper(), new UpstreamMetrics(new SimpleMeterRegistry()),
+                full, blockingScheduler, "key", "model", "project", 4, Duration.ofSeconds(8), 4, GeminiClient.INIT_LAZY);
+        List<Content> history = new ArrayList<>(List.of(Content.newBuilder().setRole("user").build(),
+                Content.newBuilder().setRole("model").build()));
+
+        assertThatThrownBy(() -> shedding.getGeminiResponse("질문", null, history).block(Duration.ofSeconds(2)))
+                .isInstanceOf(UpstreamOverloadedException.class);
+        assertThat(history).hasSize(2);
+    }
+}
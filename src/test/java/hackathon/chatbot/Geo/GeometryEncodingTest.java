@@ -0,0 +1,45 @@
+package hackathon.chatbot.Geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GeometryEncodingTest {
+
+    @Test
+    void encodesPolylineInLatLngOrder() {
+        // Google polyline 알고리즘 문서의 예제 (x=경도, y=위도)
+        RouteGeometry geometry = RouteGeometry.of(new double[]{-120.2, 38.5, -120.95, 40.7, -126.453, 43.252});
+
+        assertThat(GeometryEncoding.encodePolyline(geometry)).isEqualTo("_p~iF~ps|U_ulLnnqC_mqNvxq`@");
+    }
+
+    @Test
+    void deltaVarintRoundTrips() {
+        double[] coordinates = {127.027610, 37.497950, 127.027702, 37.497801, 126.978388, 37.566610};
+
+        byte[] bytes = Base64.getUrlDecoder().decode(GeometryEncoding.encodeDeltaVarint(RouteGeometry.of(coordinates)));
+
+        long[] values = new long[coordinates.length];
+        int offset = 0;
+        for (int i = 0; i < values.length; i++) {
+            long raw = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[offset++];
+                raw |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            long delta = (raw >>> 1) ^ -(raw & 1);
+            values[i] = (i >= 2 ? values[i - 2] : 0) + delta;
+        }
+        assertThat(offset).isEqualTo(bytes.length);
+        for (int i = 0; i < coordinates.length; i++) {
+            assertThat(values[i] / 1e6).isCloseTo(coordinates[i], within(1e-6));
+        }
+    }
+}
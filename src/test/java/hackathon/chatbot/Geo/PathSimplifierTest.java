@@ -0,0 +1,43 @@
+package hackathon.chatbot.Geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PathSimplifierTest {
+
+    @Test
+    void dropsPointsOnAStraightLine() {
+        double[] coordinates = new double[200];
+        for (int i = 0; i < 100; i++) {
+            coordinates[i * 2] = 127.0 + i * 0.0001;
+            coordinates[i * 2 + 1] = 37.5;
+        }
+
+        RouteGeometry simplified = PathSimplifier.simplify(RouteGeometry.of(coordinates), 1.0);
+
+        assertThat(simplified.pointCount()).isEqualTo(2);
+        assertThat(simplified.x(1)).isEqualTo(coordinates[198]);
+    }
+
+    @Test
+    void keepsCornersLargerThanTolerance() {
+        // 약 100m 동쪽으로 갔다가 약 100m 북쪽으로 꺾는 경로, 중간에 1m 정도 흔들리는 점
+        RouteGeometry geometry = RouteGeometry.of(new double[]{
+                127.0000, 37.5000,
+                127.0005, 37.50001,
+                127.0011, 37.5000,
+                127.0011, 37.5009});
+
+        RouteGeometry simplified = PathSimplifier.simplify(geometry, 5.0);
+
+        assertThat(simplified.pointCount()).isEqualTo(3);
+        assertThat(simplified.y(2)).isEqualTo(37.5009);
+    }
+
+    @Test
+    void zoomedOutMapsAllowLargerTolerance() {
+        assertThat(PathSimplifier.toleranceForZoom(10, 37.5)).isGreaterThan(PathSimplifier.toleranceForZoom(16, 37.5));
+        assertThat(PathSimplifier.toleranceForZoom(16, 37.5)).isBetween(1.0, 2.0);
+    }
+}
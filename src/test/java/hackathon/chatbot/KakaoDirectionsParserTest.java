@@ -0,0 +1,59 @@
+package hackathon.chatbot;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hackathon.chatbot.Dto.DirectionsLeg;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KakaoDirectionsParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonFactory jsonFactory = objectMapper.getFactory();
+
+    @Test
+    void readsSummaryAndVertexesOfEverySectionFromSmallChunks() throws IOException {
+        byte[] body = fixture();
+        KakaoDirectionsParser parser = new KakaoDirectionsParser(jsonFactory);
+        for (int offset = 0; offset < body.length; offset += 7) {
+            parser.feed(ByteBuffer.wrap(body, offset, Math.min(7, body.length - offset)));
+        }
+
+        DirectionsLeg leg = parser.finish();
+
+        JsonNode route = objectMapper.readTree(body).path("routes").get(0);
+        List<Double> expected = new ArrayList<>();
+        route.path("sections").forEach(section -> section.path("roads")
+                .forEach(road -> road.path("vertexes").forEach(v -> expected.add(v.asDouble()))));
+        assertThat(leg.getDuration()).isEqualTo(route.path("summary").path("duration").asInt());
+        assertThat(leg.getDistance()).isEqualTo(route.path("summary").path("distance").asInt());
+        assertThat(leg.getGeometry().pointCount() * 2).isEqualTo(expected.size());
+        assertThat(leg.getGeometry().x(0)).isEqualTo(expected.get(0));
+        assertThat(leg.getGeometry().y(leg.getGeometry().pointCount() - 1)).isEqualTo(expected.get(expected.size() - 1));
+    }
+
+    @Test
+    void failsWhenKakaoFindsNoRoute() {
+        String body = "{\"trans_id\":\"x\",\"routes\":[{\"result_code\":104,\"result_msg\":\"출발지와 도착지가 5 m 이내로 설정된 경우 경로를 탐색할 수 없음\"}]}";
+
+        assertThatThrownBy(() -> KakaoDirectionsParser.parse(jsonFactory, body.getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("5 m 이내");
+    }
+
+    private static byte[] fixture() throws IOException {
+        try (InputStream in = KakaoDirectionsParserTest.class.getResourceAsStream("/fixtures/kakao-directions.json")) {
+            return in.readAllBytes();
+        }
+    }
+}
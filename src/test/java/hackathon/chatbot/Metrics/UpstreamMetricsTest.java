@@ -0,0 +1,51 @@
+package hackathon.chatbot.Metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UpstreamMetricsTest {
+
+    @Test
+    void fanOutCountsOnlyTimedUpstreamCalls() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamMetrics metrics = new UpstreamMetrics(registry);
+
+        // 외부 호출 3번 + 캐시에서 바로 나온 값 1개
+        Mono<Integer> pipeline = Flux.range(0, 3)
+                .flatMap(i -> metrics.timed("kakao.directions", Mono.just(i)))
+                .concatWith(Mono.just(99))
+                .reduce(Integer::sum);
+        metrics.fanOut("map.route", pipeline).block();
+
+        assertThat(registry.get("upstream.fanout").tag("operation", "map.route").summary().totalAmount()).isEqualTo(3);
+        assertThat(registry.get("kakao.directions").tag("outcome", "success").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void failedCallIsTaggedAsError() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamMetrics metrics = new UpstreamMetrics(registry);
+
+        metrics.timed("kakao.search", Mono.error(new IllegalStateException("boom")))
+                .onErrorResume(e -> Mono.empty())
+                .block();
+
+        assertThat(registry.get("kakao.search").tag("outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void geminiTokensAreTaggedByTypeAndMode() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamMetrics metrics = new UpstreamMetrics(registry);
+
+        metrics.geminiTokens("unary", 420, 256, 180);
+
+        assertThat(registry.get("gemini.tokens").tags("type", "prompt", "mode", "unary").summary().totalAmount()).isEqualTo(420);
+        assertThat(registry.get("gemini.tokens").tags("type", "cached", "mode", "unary").summary().totalAmount()).isEqualTo(256);
+        assertThat(registry.get("gemini.tokens").tags("type", "candidates", "mode", "unary").summary().totalAmount()).isEqualTo(180);
+    }
+}
@@ -0,0 +1,80 @@
+package hackathon.chatbot.Poi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PoiIndexTest {
+
+    private static final String CSV = """
+            place_name,address_name,category_name,phone,place_url,x,y
+            강남역,서울 강남구 역삼동 858,"교통,수송 > 지하철,전철역 > 수도권2호선",,http://place.map.kakao.com/21160803,127.027610,37.497952
+            홍콩반점0410 역삼점,서울 강남구 역삼동 817-35,음식점 > 중식 > 중식당,02-555-0410,http://place.map.kakao.com/1,127.028901,37.499220
+            만리장성 판교점,경기 성남시 분당구 삼평동 681,음식점 > 중식 > 중식당,031-000-0000,http://place.map.kakao.com/2,127.111200,37.394700
+            "카페 ""온도"" 홍대점",서울 마포구 서교동 358-1,음식점 > 카페 > 커피전문점,,http://place.map.kakao.com/3,126.923000,37.556000
+            """;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void findsPlacesContainingEveryQueryTerm() throws IOException {
+        PoiIndex index = build(CSV);
+
+        List<Map<String, String>> places = index.search("  홍콩반점0410 ", 5);
+
+        assertThat(places).extracting(p -> p.get("place_name")).containsExactly("홍콩반점0410 역삼점");
+        assertThat(places.get(0)).containsEntry("category_name", "음식점 > 중식 > 중식당").containsEntry("phone", "02-555-0410");
+        assertThat(index.search("중식당", 5)).hasSize(2);
+        assertThat(index.search("카페 \"온도\"", 5)).extracting(p -> p.get("phone")).containsExactly("정보 없음");
+    }
+
+    @Test
+    void resolvesLandmarkTermAndSearchesAroundIt() throws IOException {
+        PoiIndex index = build(CSV);
+
+        // "강남역 중식당"을 다 가진 장소는 없으므로 강남역 주변의 중식당만 돌려줍니다.
+        assertThat(index.search("강남역 중식당", 5))
+                .extracting(p -> p.get("place_name"))
+                .containsExactly("홍콩반점0410 역삼점");
+        assertThat(index.search("강남역 커피전문점", 5)).isEmpty();
+    }
+
+    @Test
+    void missesAreCountedAndReturnedEmpty() throws IOException {
+        PoiIndex index = build(CSV);
+
+        assertThat(index.search("없는가게", 5)).isEmpty();
+        assertThat(index.search("판교 중식", 5)).hasSize(1);
+        assertThat(index.stats()).isEqualTo(new PoiIndex.Stats(1, 1, 4));
+    }
+
+    @Test
+    void readsJsonLines() throws IOException {
+        Path source = dir.resolve("places.jsonl");
+        Files.writeString(source, """
+                {"place_name":"스타벅스 역삼역점","address_name":"서울 강남구 역삼동 736-1","category_name":"음식점 > 카페 > 커피전문점 > 스타벅스","phone":"1522-3232","place_url":"http://place.map.kakao.com/4","x":"127.035","y":"37.500"}
+                """);
+        Path target = dir.resolve("places.poi");
+        PoiIndexBuilder.build(source, target);
+
+        assertThat(PoiIndex.open(target, 1000).search("스타벅스", 5))
+                .extracting(p -> p.get("address_name"))
+                .containsExactly("서울 강남구 역삼동 736-1");
+    }
+
+    private PoiIndex build(String csv) throws IOException {
+        Path source = dir.resolve("places.csv");
+        Files.writeString(source, csv);
+        Path target = dir.resolve("places.poi");
+        PoiIndexBuilder.buildIfStale(source, target);
+        return PoiIndex.open(target, 1000);
+    }
+}
@@ -0,0 +1,98 @@
+package hackathon.chatbot;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * reactive 프로필(Netty)로 띄운 뒤 경로/중간 지점 요청을 보내 이벤트 루프에서 블로킹 호출이 없는지 확인합니다.
+ * 테스트 JVM 전체에 BlockHound가 설치되어 있어(blockhound-junit-platform) 블로킹 호출이 있으면 요청이 실패합니다.
+ * 카카오 길찾기는 기록해 둔 응답을 돌려주는 로컬 Netty 스텁으로 대신합니다.
+ * 길찾기 파일 저장소(RouteStore)도 켜 두어 조회/저장이 이벤트 루프를 막지 않는지 같이 확인합니다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.profiles.active=reactive", "kakao.resilience.hedge.enabled=false"})
+class ReactiveRouteBlockingTest {
+
+    @TempDir
+    static Path storeDir;
+
+    private static DisposableServer kakaoStub;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void kakaoStub(DynamicPropertyRegistry registry) {
+        byte[] directions = fixture("kakao-directions.json");
+        kakaoStub = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/v1/directions", (request, response) -> response
+                                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                                .sendByteArray(Mono.just(directions)))
+                        .post("/v1/destinations/directions", (request, response) -> response
+                                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                                .sendString(Mono.just(multiDirections()))))
+                .bindNow();
+        registry.add("kakao.mobility.base-url", () -> "http://localhost:" + kakaoStub.port());
+        registry.add("kakao.route.store.path", () -> storeDir.resolve("routes.seg").toString());
+    }
+
+    @AfterAll
+    static void stopStub() {
+        kakaoStub.disposeNow();
+    }
+
+    @Test
+    void routeAndMiddlePointDoNotBlockEventLoop() {
+        String origins = "[{\"x\":127.0276,\"y\":37.4979},{\"x\":127.0453,\"y\":37.5043},{\"x\":127.0364,\"y\":37.5172}]";
+
+        webTestClient.post().uri("/map/route")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"locations\":" + origins + ",\"pathFormat\":\"polyline\",\"zoom\":14}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(3);
+
+        webTestClient.post().uri("/map/middle?mode=min_max")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(origins)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.etas.length()").isEqualTo(3);
+    }
+
+    // 다중 목적지 길찾기: 요청 내용과 상관없이 key 0~29에 대해 결과를 돌려줍니다(없는 key는 클라이언트가 무시).
+    private static String multiDirections() {
+        StringBuilder routes = new StringBuilder();
+        for (int key = 0; key < 30; key++) {
+            routes.append(key == 0 ? "" : ",")
+                    .append("{\"result_code\":0,\"result_msg\":\"길찾기 성공\",\"key\":\"").append(key)
+                    .append("\",\"summary\":{\"distance\":").append(1000 + key * 10)
+                    .append(",\"duration\":").append(300 + key * 7).append("}}");
+        }
+        return "{\"trans_id\":\"stub\",\"routes\":[" + routes + "]}";
+    }
+
+    private static byte[] fixture(String name) {
+        try (InputStream in = ReactiveRouteBlockingTest.class.getResourceAsStream("/fixtures/" + name)) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
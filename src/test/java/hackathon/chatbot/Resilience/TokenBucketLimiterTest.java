@@ -0,0 +1,49 @@
+package hackathon.chatbot.Resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketLimiterTest {
+
+    @Test
+    void interactiveWaitersGoBeforeBulkWaiters() {
+        // 초당 20개, 버스트 1: 첫 요청만 바로 나가고 나머지는 50ms 간격으로 대기열에서 나갑니다.
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 20, 1, 10, Duration.ofSeconds(2), new SimpleMeterRegistry());
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        limiter.acquire().block();
+        CompletableFuture<Void> bulk = call(limiter, RequestPriority.BULK, "bulk", order);
+        CompletableFuture<Void> interactive = call(limiter, RequestPriority.INTERACTIVE, "interactive", order);
+        CompletableFuture.allOf(bulk, interactive).join();
+
+        assertThat(order).containsExactly("interactive", "bulk");
+    }
+
+    @Test
+    void fullQueueShedsWithRetryAfterAndInteractivePreemptsBulk() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 1, 1, 1, Duration.ofSeconds(5), new SimpleMeterRegistry());
+        limiter.acquire().block();
+        CompletableFuture<Void> queuedBulk = call(limiter, RequestPriority.BULK, "bulk", new CopyOnWriteArrayList<>());
+
+        assertThatThrownBy(() -> RequestPriority.BULK.applyTo(limiter.acquire()).block())
+                .isInstanceOfSatisfying(UpstreamOverloadedException.class,
+                        e -> assertThat(e.getRetryAfter()).isGreaterThanOrEqualTo(Duration.ofSeconds(1)));
+
+        CompletableFuture<Void> interactive = call(limiter, RequestPriority.INTERACTIVE, "interactive", new CopyOnWriteArrayList<>());
+        assertThat(queuedBulk).isCompletedExceptionally();
+        interactive.cancel(true);
+    }
+
+    private static CompletableFuture<Void> call(TokenBucketLimiter limiter, RequestPriority priority, String name, List<String> order) {
+        return priority.applyTo(limiter.acquire().then(Mono.fromRunnable(() -> order.add(name)))).then().toFuture();
+    }
+}
@@ -0,0 +1,90 @@
+package hackathon.chatbot.Resilience;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamGuardTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final UpstreamGuard guard = new UpstreamGuard("test",
+            CircuitBreaker.ofDefaults("test"), Bulkhead.ofDefaults("test"),
+            new TokenBucketLimiter("test", 1000, 1000, 10, Duration.ofSeconds(1), registry), Duration.ofSeconds(2),
+            true, Duration.ofMillis(10), Duration.ofMillis(50), registry);
+
+    @Test
+    void slowPrimaryIsHedgedAndCancelled() {
+        // 빠른 응답으로 p95를 채워 헤지 지연이 최솟값(10ms)이 되게 합니다.
+        for (int i = 0; i < 25; i++) {
+            guard.execute(() -> Mono.just("warm")).block();
+        }
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+
+        String result = guard.execute(() -> attempts.getAndIncrement() == 0
+                ? Mono.delay(Duration.ofSeconds(1)).thenReturn("slow").doOnCancel(() -> primaryCancelled.set(true))
+                : Mono.just("fast")).block();
+
+        assertThat(result).isEqualTo("fast");
+        assertThat(attempts).hasValue(2);
+        assertThat(primaryCancelled).isTrue();
+        assertThat(registry.get("kakao.hedge.requests").tag("outcome", "hedge_won").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void primaryFailureIsNotHedged() {
+        for (int i = 0; i < 25; i++) {
+            guard.execute(() -> Mono.just("warm")).block();
+        }
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> guard.execute(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new IllegalStateException("boom"));
+        }).block()).isInstanceOf(IllegalStateException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void fullBulkheadIsOverloadAndDoesNotTripBreaker() {
+        CircuitBreaker breaker = CircuitBreaker.ofDefaults("single");
+        UpstreamGuard single = new UpstreamGuard("single", breaker,
+                Bulkhead.of("single", BulkheadConfig.custom().maxConcurrentCalls(1).maxWaitDuration(Duration.ZERO).build()),
+                new TokenBucketLimiter("single", 1000, 1000, 10, Duration.ofSeconds(1), registry), Duration.ofSeconds(2),
+                false, Duration.ofMillis(10), Duration.ofMillis(50), registry);
+        Disposable running = single.execute(() -> Mono.never()).subscribe();
+
+        assertThatThrownBy(() -> single.execute(() -> Mono.just("second")).block())
+                .isInstanceOfSatisfying(UpstreamOverloadedException.class,
+                        e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(1)));
+        assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isZero();
+        running.dispose();
+    }
+
+    @Test
+    void openBreakerIsOverloadWithWaitAsRetryAfter() {
+        CircuitBreaker breaker = CircuitBreaker.of("open", CircuitBreakerConfig.custom()
+                .waitDurationInOpenState(Duration.ofSeconds(10))
+                .build());
+        UpstreamGuard open = new UpstreamGuard("open", breaker, Bulkhead.ofDefaults("open"),
+                new TokenBucketLimiter("open", 1000, 1000, 10, Duration.ofSeconds(1), registry), Duration.ofSeconds(2),
+                false, Duration.ofMillis(10), Duration.ofMillis(50), registry);
+        breaker.transitionToOpenState();
+
+        assertThatThrownBy(() -> open.execute(() -> Mono.just("value")).block())
+                .isInstanceOfSatisfying(UpstreamOverloadedException.class,
+                        e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(10)));
+    }
+}
@@ -0,0 +1,67 @@
+package hackathon.chatbot.Service;
+
+import hackathon.chatbot.Dto.DirectionsLeg;
+import hackathon.chatbot.Dto.LocationRequest;
+import hackathon.chatbot.Dto.MeetPointMode;
+import hackathon.chatbot.Dto.MiddlePointResponse;
+import hackathon.chatbot.Geo.RouteGeometry;
+import hackathon.chatbot.KakaoMobilityClient;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FairMeetPointServiceTest {
+
+    @Test
+    void minMaxMovesTowardTheSlowerParticipant() {
+        // 서쪽 참가자는 2 m/s, 동쪽 참가자는 8 m/s로 움직인다고 가정한 가짜 길찾기
+        KakaoMobilityClient kakao = mock(KakaoMobilityClient.class);
+        when(kakao.getDirections(anyDouble(), anyDouble(), anyDouble(), anyDouble())).thenAnswer(invocation -> {
+            double startX = invocation.getArgument(0);
+            double endX = invocation.getArgument(2);
+            double meters = Math.abs(endX - startX) * 88_000;
+            double speed = startX < 127.05 ? 2 : 8;
+            return Mono.just(new DirectionsLeg((int) (meters / speed), (int) meters, RouteGeometry.empty()));
+        });
+        // 반경 0이면 다중 길찾기 대신 단건 길찾기로만 행렬을 채웁니다.
+        TravelMatrixService matrix = new TravelMatrixService(kakao, 30, 0, 8, 900);
+        FairMeetPointService service = new FairMeetPointService(new MeetPointService(), matrix,
+                Duration.ofSeconds(5), 8, 50, 5000);
+
+        MiddlePointResponse result = service.findMeetPoint(
+                List.of(location(127.0, 37.5), location(127.1, 37.5)), MeetPointMode.MIN_MAX).block();
+
+        assertThat(result.getX()).isLessThan(127.05);
+        assertThat(result.getEtas()).hasSize(2);
+        int centroidWorst = (int) (0.05 * 88_000 / 2);
+        assertThat(result.getEtas().stream().mapToInt(Integer::intValue).max().getAsInt()).isLessThan(centroidWorst);
+    }
+
+    @Test
+    void centroidModeSkipsDirectionsLookups() {
+        KakaoMobilityClient kakao = mock(KakaoMobilityClient.class);
+        FairMeetPointService service = new FairMeetPointService(new MeetPointService(),
+                new TravelMatrixService(kakao, 30, 10000, 8, 900), Duration.ofSeconds(1), 4, 150, 5000);
+
+        MiddlePointResponse result = service.findMeetPoint(
+                List.of(location(127.0, 37.5), location(127.1, 37.6)), MeetPointMode.CENTROID).block();
+
+        assertThat(result.getX()).isCloseTo(127.05, within(1e-9));
+        assertThat(result.getEtas()).isNull();
+    }
+
+    private static LocationRequest location(double x, double y) {
+        LocationRequest location = new LocationRequest();
+        location.setX(x);
+        location.setY(y);
+        return location;
+    }
+}
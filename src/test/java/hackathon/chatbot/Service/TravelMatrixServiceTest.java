@@ -0,0 +1,103 @@
+package hackathon.chatbot.Service;
+
+import hackathon.chatbot.Dto.DirectionsLeg;
+import hackathon.chatbot.Dto.LocationRequest;
+import hackathon.chatbot.Dto.TravelMatrix;
+import hackathon.chatbot.Geo.RouteGeometry;
+import hackathon.chatbot.KakaoMobilityClient;
+import hackathon.chatbot.Resilience.UpstreamOverloadedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TravelMatrixServiceTest {
+
+    @Test
+    void batchesDestinationsPerOriginAndFallsBackForFailedCells() {
+        KakaoMobilityClient kakao = mock(KakaoMobilityClient.class);
+        // 도착지 3개 중 마지막은 다중 길찾기에서 실패(-1)한다고 가정
+        when(kakao.getDestinationSummaries(anyDouble(), anyDouble(), any(double[].class), anyInt()))
+                .thenAnswer(invocation -> {
+                    double[] destinations = invocation.getArgument(2);
+                    int[] summaries = new int[destinations.length];
+                    for (int i = 0; i < destinations.length / 2; i++) {
+                        boolean failed = i == destinations.length / 2 - 1;
+                        summaries[i * 2] = failed ? -1 : 100 + i;
+                        summaries[i * 2 + 1] = failed ? -1 : 1000 + i;
+                    }
+                    return Mono.just(summaries);
+                });
+        when(kakao.getDirections(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenReturn(Mono.just(new DirectionsLeg(500, 5000, RouteGeometry.empty())));
+        TravelMatrixService service = new TravelMatrixService(kakao, 30, 10000, 8, 900);
+
+        double[] origins = {127.00, 37.50, 127.01, 37.50};
+        double[] destinations = {127.02, 37.51, 127.03, 37.51, 127.04, 37.51};
+        TravelMatrix matrix = service.compute(origins, destinations).block();
+
+        assertThat(matrix.getRows()).isEqualTo(2);
+        assertThat(matrix.getCols()).isEqualTo(3);
+        assertThat(matrix.getDurations()).containsExactly(100, 101, 500, 100, 101, 500);
+        assertThat(matrix.getDistances()).containsExactly(1000, 1001, 5000, 1000, 1001, 5000);
+        verify(kakao, times(2)).getDestinationSummaries(anyDouble(), anyDouble(), any(double[].class), anyInt());
+        verify(kakao, times(2)).getDirections(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void cachedAndIdenticalCellsSkipUpstream() {
+        KakaoMobilityClient kakao = mock(KakaoMobilityClient.class);
+        when(kakao.getCached(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenReturn(new DirectionsLeg(42, 420, RouteGeometry.empty()));
+        TravelMatrixService service = new TravelMatrixService(kakao, 30, 10000, 8, 900);
+
+        double[] points = {127.00, 37.50, 127.01, 37.50};
+        TravelMatrix matrix = service.compute(points, points).block();
+
+        assertThat(matrix.getDurations()).containsExactly(0, 42, 42, 0);
+        verify(kakao, never()).getDestinationSummaries(anyDouble(), anyDouble(), any(double[].class), anyInt());
+        verify(kakao, never()).getDirections(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void overloadedBatchFailsFastWithoutSingleRouteFallback() {
+        KakaoMobilityClient kakao = mock(KakaoMobilityClient.class);
+        when(kakao.getDestinationSummaries(anyDouble(), anyDouble(), any(double[].class), anyInt()))
+                .thenReturn(Mono.error(new UpstreamOverloadedException("kakao-mobility", Duration.ofSeconds(1))));
+        TravelMatrixService service = new TravelMatrixService(kakao, 30, 10000, 8, 900);
+
+        double[] origins = {127.00, 37.50};
+        double[] destinations = {127.02, 37.51, 127.03, 37.51, 127.04, 37.51};
+
+        assertThatThrownBy(() -> service.compute(origins, destinations).block())
+                .isInstanceOf(UpstreamOverloadedException.class);
+        verify(kakao, never()).getDirections(anyDouble(), anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void oversizedMatrixIsBadRequestSignal() {
+        TravelMatrixService service = new TravelMatrixService(mock(KakaoMobilityClient.class), 30, 10000, 8, 1);
+        List<LocationRequest> points = List.of(new LocationRequest(), new LocationRequest());
+
+        // 예외를 바로 던지지 않고 Mono 오류로 돌려줍니다.
+        Mono<TravelMatrix> result = service.compute(points, points);
+
+        assertThatThrownBy(result::block)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+}
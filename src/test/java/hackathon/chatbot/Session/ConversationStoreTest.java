@@ -0,0 +1,106 @@
+package hackathon.chatbot.Session;
+
+import com.google.cloud.vertexai.api.Content;
+import com.google.cloud.vertexai.api.Part;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConversationStoreTest {
+
+    @Test
+    void turnsOfOneSessionRunOneAfterAnother() {
+        ConversationStore store = new ConversationStore(Duration.ofMinutes(30), Duration.ofMinutes(1), 100, 1 << 20, new HistoryCompactor(8000, 3), repository(null));
+        Sinks.One<String> firstReply = Sinks.one();
+
+        CompletableFuture<String> first = store.runTurn("s1", history -> {
+            history.add(text("질문1"));
+            return firstReply.asMono();
+        }).next().toFuture();
+        CompletableFuture<Integer> second = store.runTurn("s1", history -> Mono.just(history.size())).next().toFuture();
+
+        assertThat(second).isNotDone();
+        firstReply.tryEmitValue("답변1");
+
+        assertThat(first.join()).isEqualTo("답변1");
+        assertThat(second.join()).isEqualTo(1);
+    }
+
+    @Test
+    void sessionsDoNotShareHistory() {
+        ConversationStore store = new ConversationStore(Duration.ofMinutes(30), Duration.ofMinutes(1), 100, 1 << 20, new HistoryCompactor(8000, 3), repository(null));
+        store.runTurn("a", history -> {
+            history.add(text("a"));
+            return Mono.just(history.size());
+        }).blockLast();
+
+        List<Integer> sizes = store.runTurn("b", history -> Mono.just(history.size())).collectList().block();
+
+        assertThat(sizes).containsExactly(0);
+        assertThat(store.stats().liveSessions()).isEqualTo(2);
+    }
+
+    @Test
+    void idleSessionsAreEvicted() {
+        ConversationStore store = new ConversationStore(Duration.ZERO, Duration.ofMinutes(1), 100, 1 << 20, new HistoryCompactor(8000, 3), repository(null));
+        store.runTurn("a", history -> Mono.just(1)).blockLast();
+
+        store.sweep();
+
+        assertThat(store.liveSessions()).isZero();
+        assertThat(store.stats().evicted()).isEqualTo(1);
+    }
+
+    @Test
+    void evictedSessionIsRestoredFromRepository() {
+        Map<String, List<Content>> saved = new ConcurrentHashMap<>();
+        HistoryRepository repository = new HistoryRepository() {
+            @Override
+            public Mono<List<Content>> load(String sessionId) {
+                return Mono.fromSupplier(() -> saved.getOrDefault(sessionId, List.of()));
+            }
+
+            @Override
+            public void save(String sessionId, List<Content> history) {
+                saved.put(sessionId, List.copyOf(history));
+            }
+        };
+        ConversationStore store = new ConversationStore(Duration.ZERO, Duration.ofMinutes(1), 100, 1 << 20, new HistoryCompactor(8000, 3), repository(repository));
+        store.runTurn("a", history -> {
+            history.add(text("질문1"));
+            return Mono.just(1);
+        }).blockLast();
+        store.sweep();
+
+        List<String> restored = store.runTurn("a", history -> Mono.just(texts(history))).blockLast();
+
+        assertThat(store.stats().evicted()).isEqualTo(1);
+        assertThat(restored).containsExactly("질문1");
+    }
+
+    private static ObjectProvider<HistoryRepository> repository(HistoryRepository repository) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        if (repository != null) {
+            beanFactory.addBean("historyRepository", repository);
+        }
+        return beanFactory.getBeanProvider(HistoryRepository.class);
+    }
+
+    private static List<String> texts(List<Content> history) {
+        return history.stream().map(content -> content.getParts(0).getText()).toList();
+    }
+
+    private static Content text(String text) {
+        return Content.newBuilder().setRole("user").addParts(Part.newBuilder().setText(text)).build();
+    }
+}
@@ -0,0 +1,96 @@
+package hackathon.chatbot.Session;
+
+import com.google.cloud.vertexai.api.Content;
+import com.google.cloud.vertexai.api.FunctionCall;
+import com.google.cloud.vertexai.api.FunctionResponse;
+import com.google.cloud.vertexai.api.Part;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistoryCompactorTest {
+
+    @Test
+    void summarizesOldToolResultsAndKeepsRecentTurnsVerbatim() {
+        List<Content> history = new ArrayList<>();
+        for (int turn = 0; turn < 3; turn++) {
+            addTurn(history, turn);
+        }
+        List<HistoryCompactor.Size> sizes = sizes(history);
+        Content recentToolResult = history.get(6);
+
+        new HistoryCompactor(sum(sizes) - 1, 2).compact(history, sizes);
+
+        assertThat(history).hasSize(12);
+        Struct oldResult = history.get(2).getParts(0).getFunctionResponse().getResponse();
+        assertThat(oldResult.getFieldsOrThrow("summary").getStringValue()).isEqualTo("places: 장소0-0, 장소0-1, 장소0-2");
+        assertThat(oldResult.containsFields("places")).isFalse();
+        assertThat(history.get(6)).isSameAs(recentToolResult);
+        assertThat(sizes).isEqualTo(sizes(history));
+    }
+
+    @Test
+    void dropsOldestWholeTurnsWhenSummariesAreNotEnough() {
+        List<Content> history = new ArrayList<>();
+        for (int turn = 0; turn < 4; turn++) {
+            addTurn(history, turn);
+        }
+        List<HistoryCompactor.Size> sizes = sizes(history);
+        int lastTwoTurns = sum(sizes.subList(8, 16));
+
+        new HistoryCompactor(lastTwoTurns, 2).compact(history, sizes);
+
+        // 예산이 최근 두 턴만큼이라 오래된 두 턴은 요약해도 넘치므로 통째로 버립니다.
+        assertThat(history).hasSize(8);
+        assertThat(history.get(0).getParts(0).getText()).isEqualTo("질문2");
+        assertThat(history.get(2).getParts(0).getFunctionResponse().getResponse().containsFields("places")).isTrue();
+        assertThat(sum(sizes)).isLessThanOrEqualTo(lastTwoTurns);
+    }
+
+    @Test
+    void estimatesHangulDenserThanAscii() {
+        assertThat(HistoryCompactor.estimateTokens(content("user", Part.newBuilder().setText("abcdefgh").build()))).isEqualTo(2);
+        assertThat(HistoryCompactor.estimateTokens(content("user", Part.newBuilder().setText("강남역맛집").build()))).isEqualTo(4);
+    }
+
+    // 질문 -> 함수 호출 -> 도구 결과 -> 답변
+    private static void addTurn(List<Content> history, int turn) {
+        history.add(content("user", Part.newBuilder().setText("질문" + turn).build()));
+        history.add(content("model", Part.newBuilder().setFunctionCall(FunctionCall.newBuilder().setName("search_places")).build()));
+        ListValue.Builder places = ListValue.newBuilder();
+        for (int i = 0; i < 3; i++) {
+            places.addValues(Value.newBuilder().setStructValue(Struct.newBuilder()
+                    .putFields("place_name", string("장소" + turn + "-" + i))
+                    .putFields("address_name", string("서울 강남구 역삼동 " + i + "번지 아주 긴 주소 설명"))
+                    .putFields("place_url", string("http://place.map.kakao.com/" + turn + i))));
+        }
+        history.add(content("user", Part.newBuilder().setFunctionResponse(FunctionResponse.newBuilder()
+                .setName("search_places")
+                .setResponse(Struct.newBuilder()
+                        .putFields("status", string("success"))
+                        .putFields("places", Value.newBuilder().setListValue(places).build()))).build()));
+        history.add(content("model", Part.newBuilder().setText("답변" + turn).build()));
+    }
+
+    private static Content content(String role, Part part) {
+        return Content.newBuilder().setRole(role).addParts(part).build();
+    }
+
+    private static Value string(String value) {
+        return Value.newBuilder().setStringValue(value).build();
+    }
+
+    private static List<HistoryCompactor.Size> sizes(List<Content> history) {
+        return new ArrayList<>(history.stream().map(HistoryCompactor.Size::of).toList());
+    }
+
+    private static int sum(List<HistoryCompactor.Size> sizes) {
+        return sizes.stream().mapToInt(HistoryCompactor.Size::tokens).sum();
+    }
+}
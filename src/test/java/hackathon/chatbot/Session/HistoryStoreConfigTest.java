@@ -0,0 +1,60 @@
+package hackathon.chatbot.Session;
+
+import hackathon.chatbot.Config.HistoryStoreConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistoryStoreConfigTest {
+
+    // DataSource 자동 설정은 등록하지 않습니다. DB가 설정됐을 때 HistoryStoreConfig가 직접 불러와야 합니다.
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withPropertyValues("chatbot.history.store.flush-interval=1h")
+            .withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withBean("blockingScheduler", Scheduler.class, Schedulers::immediate)
+            .withUserConfiguration(HistoryStoreConfig.class);
+
+    @Test
+    void staysInMemoryWithoutDatabase() {
+        runner.run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).doesNotHaveBean(JdbcHistoryRepository.class);
+            assertThat(context).doesNotHaveBean(DataSource.class);
+        });
+    }
+
+    @Test
+    void usesDatasourceUrl() {
+        runner.withPropertyValues("spring.datasource.url=jdbc:h2:mem:url;MODE=MySQL")
+                .run(context -> assertThat(context).hasSingleBean(JdbcHistoryRepository.class));
+    }
+
+    // docker compose 지원은 spring.datasource.url 대신 JdbcConnectionDetails 빈을 등록합니다.
+    @Test
+    void usesComposeConnectionDetails() {
+        runner.withBean(JdbcConnectionDetails.class, () -> new JdbcConnectionDetails() {
+                    @Override
+                    public String getUsername() {
+                        return "sa";
+                    }
+
+                    @Override
+                    public String getPassword() {
+                        return "";
+                    }
+
+                    @Override
+                    public String getJdbcUrl() {
+                        return "jdbc:h2:mem:compose;MODE=MySQL";
+                    }
+                })
+                .run(context -> assertThat(context).hasSingleBean(JdbcHistoryRepository.class));
+    }
+}
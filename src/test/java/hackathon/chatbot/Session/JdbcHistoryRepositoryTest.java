@@ -0,0 +1,97 @@
+package hackathon.chatbot.Session;
+
+import com.google.cloud.vertexai.api.Content;
+import com.google.cloud.vertexai.api.Part;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcHistoryRepositoryTest {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private JdbcHistoryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:history;MODE=MySQL", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // 자동 flush 없이 테스트에서 직접 flush를 부릅니다.
+        repository = new JdbcHistoryRepository(jdbcTemplate, Schedulers.immediate(), Duration.ofHours(1), 2, 3, Duration.ofDays(7));
+        repository.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.stop();
+        jdbcTemplate.execute("DROP TABLE IF EXISTS conversation_history");
+        dataSource.destroy();
+    }
+
+    @Test
+    void coalescesTurnsOfOneSessionIntoOneBatchedWrite() {
+        repository.save("a", List.of(text("질문1")));
+        repository.save("a", List.of(text("질문1"), text("답변1")));
+        repository.save("b", List.of(text("질문b")));
+        repository.save("c", List.of(text("질문c")));
+
+        // 쓰기 전에도 대기 중인 최신 기록을 읽습니다.
+        assertThat(repository.load("a").block()).hasSize(2);
+        assertThat(repository.stats().loads()).isZero();
+
+        repository.flush();
+
+        assertThat(repository.stats()).isEqualTo(new JdbcHistoryRepository.Stats(0, 3, 2, 0, 0, 0));
+        assertThat(repository.load("a").block()).containsExactly(text("질문1"), text("답변1"));
+        assertThat(repository.load("missing").block()).isEmpty();
+    }
+
+    @Test
+    void dropsNewSessionsWhenTooManyWritesArePending() {
+        repository.save("a", List.of(text("a")));
+        repository.save("b", List.of(text("b")));
+        repository.save("c", List.of(text("c")));
+        repository.save("d", List.of(text("d")));
+        repository.save("a", List.of(text("a"), text("a2")));
+
+        assertThat(repository.stats().pending()).isEqualTo(3);
+        assertThat(repository.stats().dropped()).isEqualTo(1);
+    }
+
+    @Test
+    void startsWithoutDatabaseAndKeepsWritesPendingUntilItIsReachable() {
+        SingleConnectionDataSource unreachable = new SingleConnectionDataSource("jdbc:h2:tcp://localhost:1/missing", "sa", "", true);
+        JdbcHistoryRepository offline = new JdbcHistoryRepository(new JdbcTemplate(unreachable), Schedulers.immediate(),
+                Duration.ofHours(1), 2, 3, Duration.ofDays(7));
+        offline.start();
+        offline.save("a", List.of(text("질문")));
+
+        offline.flush();
+        offline.stop();
+
+        assertThat(offline.stats().pending()).isEqualTo(1);
+        assertThat(offline.stats().failures()).isEqualTo(2);
+        assertThatThrownBy(() -> offline.load("b").block()).isInstanceOf(DataAccessException.class);
+    }
+
+    @Test
+    void encodesHistoryAsDelimitedContents() throws Exception {
+        List<Content> history = List.of(text("강남역 맛집"), text(""), text("답변"));
+
+        assertThat(JdbcHistoryRepository.decode(JdbcHistoryRepository.encode(history))).isEqualTo(history);
+    }
+
+    private static Content text(String text) {
+        return Content.newBuilder().setRole("user").addParts(Part.newBuilder().setText(text)).build();
+    }
+}
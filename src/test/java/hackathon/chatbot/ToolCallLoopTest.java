@@ -0,0 +1,146 @@
+package hackathon.chatbot;
+
+import com.google.cloud.vertexai.api.Candidate;
+import com.google.cloud.vertexai.api.Content;
+import com.google.cloud.vertexai.api.FunctionCall;
+import com.google.cloud.vertexai.api.GenerateContentResponse;
+import com.google.cloud.vertexai.api.Part;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ToolCallLoopTest {
+
+    @Test
+    void runsAllCallsOfOneTurnConcurrentlyAndAnswersInOneContent() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<GenerateContentResponse> responses = new ArrayList<>(List.of(
+                response(call("강남역 맛집"), call("홍대 카페"), call("판교역 술집")),
+                response(text("세 곳을 찾았어요"))));
+        ToolCallLoop loop = new ToolCallLoop(scripted(responses, new ArrayList<>()), c -> Mono.fromRunnable(() ->
+                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                .then(Mono.delay(Duration.ofMillis(50)))
+                .doOnNext(t -> inFlight.decrementAndGet())
+                .thenReturn(GeminiClient.toToolResponsePart(c.getName(), query(c), List.of(Map.of("place_name", query(c))))),
+                4, Duration.ofSeconds(5), 4);
+        List<Content> history = new ArrayList<>();
+
+        String answer = loop.run(history).block();
+
+        assertThat(answer).isEqualTo("세 곳을 찾았어요");
+        assertThat(maxInFlight).hasValue(3);
+        assertThat(history).hasSize(3);
+        Content toolResponses = history.get(1);
+        assertThat(toolResponses.getRole()).isEqualTo("user");
+        assertThat(toolResponses.getPartsList())
+                .extracting(p -> p.getFunctionResponse().getResponse().getFieldsOrThrow("places")
+                        .getListValue().getValues(0).getStructValue().getFieldsOrThrow("place_name").getStringValue())
+                .containsExactly("강남역 맛집", "홍대 카페", "판교역 술집");
+    }
+
+    @Test
+    void stopsOfferingToolsOnceStepBudgetIsSpent() {
+        List<Boolean> allowTools = new ArrayList<>();
+        ToolCallLoop.Model model = new ToolCallLoop.Model() {
+            @Override
+            public Mono<GenerateContentResponse> generate(List<Content> history, boolean allow) {
+                allowTools.add(allow);
+                // 도구를 허용하면 계속 검색을 요청하는 모델
+                return Mono.just(allow ? response(call("또 검색")) : response(text("여기까지 찾은 결과입니다")));
+            }
+
+            @Override
+            public Flux<GenerateContentResponse> stream(List<Content> history, boolean allow) {
+                return Flux.error(new UnsupportedOperationException());
+            }
+        };
+        AtomicInteger toolCalls = new AtomicInteger();
+        ToolCallLoop loop = new ToolCallLoop(model, c -> {
+            toolCalls.incrementAndGet();
+            return Mono.just(GeminiClient.toToolErrorPart(c.getName(), "Place search failed"));
+        }, 2, Duration.ofSeconds(5), 4);
+
+        String answer = loop.run(new ArrayList<>()).block();
+
+        assertThat(answer).isEqualTo("여기까지 찾은 결과입니다");
+        assertThat(toolCalls).hasValue(2);
+        assertThat(allowTools).containsExactly(true, true, false);
+    }
+
+    @Test
+    void streamsTextAcrossToolRoundsAndRecordsHistory() {
+        List<List<GenerateContentResponse>> rounds = new ArrayList<>(List.of(
+                List.of(response(text("찾아볼게요. ")), response(call("강남역 맛집"))),
+                List.of(response(text("강남역에는 ")), response(text("짜장집이 있어요")))));
+        ToolCallLoop.Model model = new ToolCallLoop.Model() {
+            @Override
+            public Mono<GenerateContentResponse> generate(List<Content> history, boolean allow) {
+                return Mono.error(new UnsupportedOperationException());
+            }
+
+            @Override
+            public Flux<GenerateContentResponse> stream(List<Content> history, boolean allow) {
+                return Flux.fromIterable(rounds.remove(0));
+            }
+        };
+        ToolCallLoop loop = new ToolCallLoop(model,
+                c -> Mono.just(GeminiClient.toToolResponsePart(c.getName(), query(c), List.of())), 4, Duration.ofSeconds(5), 4);
+        List<Content> history = new ArrayList<>();
+
+        List<String> chunks = loop.stream(history).collectList().block();
+
+        assertThat(chunks).containsExactly("찾아볼게요. ", "강남역에는 ", "짜장집이 있어요");
+        assertThat(history).hasSize(3);
+        assertThat(history.get(0).getPartsList()).extracting(Part::hasFunctionCall).containsExactly(false, true);
+        assertThat(history.get(2).getParts(0).getText()).isEqualTo("강남역에는 짜장집이 있어요");
+    }
+
+    private static ToolCallLoop.Model scripted(List<GenerateContentResponse> responses, List<Boolean> allowTools) {
+        return new ToolCallLoop.Model() {
+            @Override
+            public Mono<GenerateContentResponse> generate(List<Content> history, boolean allow) {
+                allowTools.add(allow);
+                return Mono.just(responses.remove(0));
+            }
+
+            @Override
+            public Flux<GenerateContentResponse> stream(List<Content> history, boolean allow) {
+                return Flux.error(new UnsupportedOperationException());
+            }
+        };
+    }
+
+    private static GenerateContentResponse response(Part... parts) {
+        return GenerateContentResponse.newBuilder()
+                .addCandidates(Candidate.newBuilder()
+                        .setContent(Content.newBuilder().setRole("model").addAllParts(List.of(parts))))
+                .build();
+    }
+
+    private static Part text(String text) {
+        return Part.newBuilder().setText(text).build();
+    }
+
+    private static Part call(String query) {
+        return Part.newBuilder().setFunctionCall(FunctionCall.newBuilder()
+                        .setName("search_places")
+                        .setArgs(Struct.newBuilder()
+                                .putFields("query", Value.newBuilder().setStringValue(query).build())))
+                .build();
+    }
+
+    private static String query(FunctionCall call) {
+        return call.getArgs().getFieldsOrThrow("query").getStringValue();
+    }
+}